@@ -0,0 +1,45 @@
+package com.empressvalla.emeraldlasso.gametest;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.item.ModItems;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.TooltipFlag;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is responsible for testing the lasso item
+ * itself, outside of capturing and releasing entities.
+ */
+@GameTestHolder(EmeraldLasso.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class LassoItemTests {
+
+    /**
+     * Rendering an empty lasso must never give it a tag, a stack that gains
+     * one no longer stacks or compares equal with a lasso fresh from a recipe.
+     */
+    @GameTest(template = "platform")
+    public static void renderingEmptyLassoLeavesTagNull(GameTestHelper helper) {
+        ItemStack lasso = new ItemStack(ModItems.EMERALD_LASSO.get());
+
+        helper.assertFalse(lasso.getItem().isFoil(lasso), "An empty lasso should not glint");
+
+        List<Component> tooltip = new ArrayList<>();
+
+        lasso.getItem().appendHoverText(lasso, helper.getLevel(), tooltip, TooltipFlag.NORMAL);
+
+        lasso.getItem().appendHoverText(lasso, helper.getLevel(), tooltip, TooltipFlag.ADVANCED);
+
+        helper.assertTrue(lasso.getTag() == null, "isFoil and appendHoverText gave an empty lasso a tag: " + lasso.getTag());
+
+        helper.succeed();
+    }
+
+}
@@ -0,0 +1,262 @@
+package com.empressvalla.emeraldlasso.gametest;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.item.ModItems;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.authlib.GameProfile;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.context.UseOnContext;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class is responsible for load testing the lasso.
+ * It fills a pen with mobs and has many fake players
+ * capture and release them every tick, while the tick
+ * times and allocations of the server are recorded.
+ *
+ * The test writes a JSON report to the emeraldlasso-loadtest folder
+ * in the run directory and fails if the 99th percentile tick time goes
+ * over the budget. It is tuned with the following system properties,
+ * which are set in the gameTestServer run:
+ *
+ * emeraldlasso.loadtest.mobs - The number of mobs spawned in the pen.
+ * emeraldlasso.loadtest.players - The number of fake players using lassos.
+ * emeraldlasso.loadtest.warmupTicks - The number of ticks run before recording starts.
+ * emeraldlasso.loadtest.ticks - The number of ticks recorded.
+ * emeraldlasso.loadtest.tickBudgetMs - The 99th percentile tick time in milliseconds the test fails above.
+ */
+@GameTestHolder(EmeraldLasso.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class LassoLoadTests {
+
+    /**
+     * The most ticks the test can run for, the warmup and recorded ticks are capped to fit inside it.
+     */
+    private static final int TIMEOUT_TICKS = 12000;
+
+    /**
+     * The width and depth of the floor of the load_pen structure, inside its barrier ring.
+     */
+    private static final int PEN_SIZE = 48;
+
+    private static final EntityType<?>[] MOB_TYPES = {
+            EntityType.PIG, EntityType.COW, EntityType.SHEEP, EntityType.CHICKEN, EntityType.VILLAGER
+    };
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    @GameTest(template = "load_pen", batch = "emeraldlasso_load", timeoutTicks = TIMEOUT_TICKS)
+    public static void massCaptureAndRelease(GameTestHelper helper) {
+        int mobCount = Integer.getInteger("emeraldlasso.loadtest.mobs", 2000);
+        int playerCount = Integer.getInteger("emeraldlasso.loadtest.players", 20);
+        int warmupTicks = Math.min(Integer.getInteger("emeraldlasso.loadtest.warmupTicks", 20), TIMEOUT_TICKS / 2);
+        int recordedTicks = Math.min(Integer.getInteger("emeraldlasso.loadtest.ticks", 600), TIMEOUT_TICKS - warmupTicks - 1);
+        double tickBudgetMillis = Double.parseDouble(System.getProperty("emeraldlasso.loadtest.tickBudgetMs", "50"));
+
+        ServerLevel level = helper.getLevel();
+
+        RandomSource random = level.getRandom();
+
+        for(int i = 0; i < mobCount; i++) {
+            helper.spawn(MOB_TYPES[i % MOB_TYPES.length], new BlockPos(1 + random.nextInt(PEN_SIZE - 2), 1, 1 + random.nextInt(PEN_SIZE - 2)));
+        }
+
+        List<LoadPlayer> players = new ArrayList<>(playerCount);
+
+        for(int i = 0; i < playerCount; i++) {
+            FakePlayer player = FakePlayerFactory.get(level, new GameProfile(UUID.nameUUIDFromBytes(("emeraldlasso_load_" + i).getBytes(StandardCharsets.UTF_8)),
+                                                                             "[EmeraldLassoLoad" + i + "]"));
+
+            BlockPos standingPosition = helper.absolutePos(new BlockPos(1 + random.nextInt(PEN_SIZE - 2), 1, 1 + random.nextInt(PEN_SIZE - 2)));
+
+            player.setPos(Vec3.atBottomCenterOf(standingPosition));
+
+            players.add(new LoadPlayer(player, standingPosition.below()));
+        }
+
+        AABB penBounds = new AABB(helper.absolutePos(BlockPos.ZERO), helper.absolutePos(new BlockPos(PEN_SIZE, 3, PEN_SIZE)));
+
+        LoadDriver driver = new LoadDriver(level, penBounds, players);
+
+        helper.onEachTick(driver::tick);
+
+        TickRecorder[] recorder = new TickRecorder[1];
+
+        helper.runAfterDelay(warmupTicks, () -> recorder[0] = TickRecorder.start(recordedTicks));
+
+        helper.runAfterDelay(warmupTicks + recordedTicks, () -> {
+            TickRecorder.Summary summary = recorder[0].stop();
+
+            JsonObject report = new JsonObject();
+
+            report.addProperty("test", "massCaptureAndRelease");
+            report.addProperty("mobs", mobCount);
+            report.addProperty("players", playerCount);
+            report.addProperty("tick_budget_ms", tickBudgetMillis);
+            report.addProperty("captures", driver.captures);
+            report.addProperty("releases", driver.releases);
+            report.add("ticks", summary.toJson());
+            report.addProperty("passed", summary.p99Millis() <= tickBudgetMillis);
+
+            writeReport(report);
+
+            if(summary.p99Millis() > tickBudgetMillis) {
+                helper.fail(String.format("p99 MSPT %.2fms is over the %.2fms budget", summary.p99Millis(), tickBudgetMillis));
+            }
+
+            helper.succeed();
+        });
+    }
+
+    /**
+     * This method is responsible for writing a load test
+     * report, both under a timestamped name and as the
+     * latest report so that it is easy for CI to find.
+     *
+     * @param report The report to write.
+     */
+    private static void writeReport(JsonObject report) {
+        Path reportDirectory = FMLPaths.GAMEDIR.get().resolve("emeraldlasso-loadtest");
+
+        try {
+            Files.createDirectories(reportDirectory);
+
+            String json = GSON.toJson(report);
+
+            for(Path reportPath : List.of(reportDirectory.resolve("load-" + System.currentTimeMillis() + ".json"),
+                                          reportDirectory.resolve("latest.json"))) {
+                try(Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+                    writer.write(json);
+                }
+            }
+
+            LOGGER.info("Emerald lasso load test report: {}", json);
+        } catch(IOException exception) {
+            LOGGER.error("Could not write the emerald lasso load test report", exception);
+        }
+    }
+
+    /**
+     * A record holding a fake player and the block it releases entities onto.
+     *
+     * @param player The fake player.
+     *
+     * @param releaseFloor The floor block entities are released on top of.
+     */
+    private record LoadPlayer(FakePlayer player, BlockPos releaseFloor) {
+    }
+
+    /**
+     * An inner class for driving the fake players every tick.
+     * Each player captures the next mob in the pen until its lasso
+     * is full, then releases one, so capture and release are both
+     * exercised every tick.
+     */
+    private static class LoadDriver {
+        private final ServerLevel level;
+
+        private final AABB penBounds;
+
+        private final List<LoadPlayer> players;
+
+        private List<Mob> targets = List.of();
+
+        private int targetIndex;
+
+        private int captures;
+
+        private int releases;
+
+        private LoadDriver(ServerLevel level, AABB penBounds, List<LoadPlayer> players) {
+            this.level = level;
+            this.penBounds = penBounds;
+            this.players = players;
+        }
+
+        private void tick() {
+            for(LoadPlayer loadPlayer : players) {
+                FakePlayer player = loadPlayer.player();
+
+                ItemStack lasso = player.getMainHandItem();
+
+                // The lasso broke from durability, so the player is handed a new one.
+                if(!lasso.is(ModItems.EMERALD_LASSO.get())) {
+                    lasso = new ItemStack(ModItems.EMERALD_LASSO.get());
+
+                    player.setItemInHand(InteractionHand.MAIN_HAND, lasso);
+                }
+
+                Mob target = nextTarget();
+
+                if(target != null && lasso.getItem().onLeftClickEntity(lasso, player, target)) {
+                    captures++;
+
+                    continue;
+                }
+
+                BlockPos floor = loadPlayer.releaseFloor();
+
+                UseOnContext context = new UseOnContext(player, InteractionHand.MAIN_HAND,
+                                                        new BlockHitResult(Vec3.atCenterOf(floor), Direction.UP, floor, false));
+
+                if(lasso.useOn(context) == InteractionResult.SUCCESS) {
+                    releases++;
+                }
+            }
+        }
+
+        private Mob nextTarget() {
+            while(true) {
+                if(targetIndex >= targets.size()) {
+                    // Released mobs are new entities, so the pen is searched again once every known mob has been tried.
+                    targets = level.getEntitiesOfClass(Mob.class, penBounds, Mob::isAlive);
+
+                    targetIndex = 0;
+
+                    if(targets.isEmpty()) {
+                        return null;
+                    }
+                }
+
+                Mob target = targets.get(targetIndex++);
+
+                if(target.isAlive()) {
+                    return target;
+                }
+            }
+        }
+    }
+
+}
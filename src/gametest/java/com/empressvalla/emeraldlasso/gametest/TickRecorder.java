@@ -0,0 +1,165 @@
+package com.empressvalla.emeraldlasso.gametest;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.google.gson.JsonObject;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * This class is responsible for recording how long each
+ * server tick takes and how much the server thread
+ * allocates while a load test is running.
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public final class TickRecorder {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Responsible for storing the recorder of the running load test. Only accessed from the server thread.
+     */
+    private static TickRecorder active;
+
+    private final long[] tickNanos;
+
+    private final long[] tickAllocatedBytes;
+
+    private int recordedTicks;
+
+    private long tickStartNanos;
+
+    private long tickStartAllocatedBytes;
+
+    private TickRecorder(int maxTicks) {
+        this.tickNanos = new long[maxTicks];
+        this.tickAllocatedBytes = new long[maxTicks];
+    }
+
+    /**
+     * This method is responsible for starting to record
+     * ticks. Only one recording can run at a time.
+     *
+     * @param maxTicks The most ticks that will be recorded.
+     *
+     * @return The started recorder.
+     */
+    public static TickRecorder start(int maxTicks) {
+        active = new TickRecorder(maxTicks);
+
+        return active;
+    }
+
+    /**
+     * This method is responsible for stopping the recording
+     * and summarising the recorded ticks.
+     *
+     * @return The summary of the recorded ticks.
+     */
+    public Summary stop() {
+        if(active == this) {
+            active = null;
+        }
+
+        long[] sortedNanos = Arrays.copyOf(tickNanos, recordedTicks);
+
+        Arrays.sort(sortedNanos);
+
+        long totalNanos = 0;
+
+        long totalAllocatedBytes = 0;
+
+        for(int i = 0; i < recordedTicks; i++) {
+            totalNanos += tickNanos[i];
+            totalAllocatedBytes += tickAllocatedBytes[i];
+        }
+
+        double seconds = Math.max(totalNanos, 1) / 1_000_000_000.0;
+
+        return new Summary(recordedTicks,
+                           percentile(sortedNanos, 0.50),
+                           percentile(sortedNanos, 0.95),
+                           percentile(sortedNanos, 0.99),
+                           recordedTicks == 0 ? 0.0 : sortedNanos[recordedTicks - 1] / NANOS_PER_MILLI,
+                           totalAllocatedBytes,
+                           totalAllocatedBytes / seconds / (1024.0 * 1024.0));
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        TickRecorder recorder = active;
+
+        if(recorder == null) {
+            return;
+        }
+
+        if(event.phase == TickEvent.Phase.START) {
+            recorder.tickStartNanos = System.nanoTime();
+            recorder.tickStartAllocatedBytes = allocatedBytes();
+        } else if(recorder.tickStartNanos != 0 && recorder.recordedTicks < recorder.tickNanos.length) {
+            recorder.tickNanos[recorder.recordedTicks] = System.nanoTime() - recorder.tickStartNanos;
+            recorder.tickAllocatedBytes[recorder.recordedTicks] = allocatedBytes() - recorder.tickStartAllocatedBytes;
+            recorder.recordedTicks++;
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double fraction) {
+        if(sortedNanos.length == 0) {
+            return 0.0;
+        }
+
+        int index = (int) Math.ceil(fraction * sortedNanos.length) - 1;
+
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / NANOS_PER_MILLI;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        if(threadBean instanceof com.sun.management.ThreadMXBean allocationBean) {
+            return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return 0L;
+    }
+
+    /**
+     * A record summarising the recorded ticks.
+     *
+     * @param ticks The number of ticks recorded.
+     *
+     * @param p50Millis The median tick time in milliseconds.
+     *
+     * @param p95Millis The 95th percentile tick time in milliseconds.
+     *
+     * @param p99Millis The 99th percentile tick time in milliseconds.
+     *
+     * @param maxMillis The longest tick time in milliseconds.
+     *
+     * @param allocatedBytes The bytes allocated by the server thread during the recorded ticks.
+     *
+     * @param allocationRateMegabytes The allocation rate in megabytes per second of tick time.
+     */
+    public record Summary(int ticks, double p50Millis, double p95Millis, double p99Millis, double maxMillis,
+                          long allocatedBytes, double allocationRateMegabytes) {
+
+        public JsonObject toJson() {
+            JsonObject json = new JsonObject();
+
+            json.addProperty("ticks", ticks);
+            json.addProperty("mspt_p50", p50Millis);
+            json.addProperty("mspt_p95", p95Millis);
+            json.addProperty("mspt_p99", p99Millis);
+            json.addProperty("mspt_max", maxMillis);
+            json.addProperty("allocated_bytes", allocatedBytes);
+            json.addProperty("allocation_rate_mb_per_s", allocationRateMegabytes);
+
+            return json;
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.empressvalla.emeraldlasso;
+
+import com.empressvalla.emeraldlasso.item.advanced.EmeraldLassoItem;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.TagParser;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Item;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is responsible for loading the saved entity
+ * NBT used by the benchmarks. The fixtures were saved from
+ * a 1.19.4 world: a plain pig, a master farmer villager with
+ * a full trade list and a tamed horse wearing armor.
+ */
+public final class Fixtures {
+
+    /**
+     * The names of every fixture which can be loaded.
+     */
+    public static final String[] ENTITIES = {"pig", "villager", "horse"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * This method is responsible for loading the vanilla
+     * registries, which item stacks need before they can be made.
+     */
+    public static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * This method is responsible for making a lasso
+     * item the benchmarks can call the real item methods
+     * on. The item registry is opened again the same way
+     * Forge opens it for mods to register their items,
+     * the lasso is never registered.
+     *
+     * Stacks of the lasso cannot be made, since Forge needs the item to be
+     * registered for that, so the item methods are called with stacks of leads.
+     *
+     * @return A new lasso item.
+     */
+    public static EmeraldLassoItem lassoItem() {
+        bootstrap();
+
+        ((MappedRegistry<Item>) BuiltInRegistries.ITEM).unfreeze();
+
+        return new EmeraldLassoItem(new Item.Properties());
+    }
+
+    /**
+     * This method is responsible for loading a fixture.
+     *
+     * @param name The name of the fixture. I.E villager
+     *
+     * @return The saved NBT of the entity.
+     */
+    public static CompoundTag load(String name) {
+        try(InputStream input = Fixtures.class.getResourceAsStream("/fixtures/" + name + ".snbt")) {
+            if(input == null) {
+                throw new IllegalArgumentException("There is no fixture called " + name);
+            }
+
+            return TagParser.parseTag(new String(input.readAllBytes(), StandardCharsets.UTF_8).trim());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (CommandSyntaxException exception) {
+            throw new IllegalStateException("The fixture " + name + " is not valid SNBT", exception);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.empressvalla.emeraldlasso.config;
+
+import com.empressvalla.emeraldlasso.Fixtures;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whitelist check done by the capture rules on every
+ * left click, against the linear list scan it replaced. The
+ * probed type is the last one on the whitelist, the worst case
+ * for the scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhitelistBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int whitelistSize;
+
+    private EntityWhitelist whitelist;
+
+    private List<EntityType<?>> linearWhitelist;
+
+    private EntityType<?> probe;
+
+    @Setup
+    public void setup() {
+        Fixtures.bootstrap();
+
+        List<String> entries = new ArrayList<>();
+
+        linearWhitelist = new ArrayList<>();
+
+        int registeredTypes = Math.min(whitelistSize, BuiltInRegistries.ENTITY_TYPE.size());
+
+        // The vanilla registry has fewer types than the biggest size, so the list is padded with unknown types
+        // the same way a modpack whitelist would contain entries for mods that are not installed.
+        for(int i = registeredTypes; i < whitelistSize; i++) {
+            entries.add("benchmark:entity_" + i);
+
+            linearWhitelist.add(EntityType.MARKER);
+        }
+
+        for(int i = 0; i < registeredTypes; i++) {
+            EntityType<?> entityType = BuiltInRegistries.ENTITY_TYPE.byId(i);
+
+            entries.add(EntityType.getKey(entityType).toString());
+
+            linearWhitelist.add(entityType);
+        }
+
+        probe = BuiltInRegistries.ENTITY_TYPE.byId(registeredTypes - 1);
+
+        whitelist = EntityWhitelist.build(entries, 0);
+    }
+
+    @Benchmark
+    public boolean indexedLookup() {
+        return whitelist.contains(probe);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for(EntityType<?> type : linearWhitelist) {
+            if(probe.equals(type)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
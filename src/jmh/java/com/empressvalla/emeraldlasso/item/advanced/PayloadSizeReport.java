@@ -0,0 +1,93 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.Fixtures;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import com.empressvalla.emeraldlasso.storage.PayloadCodec;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Prints how many bytes the benchmark entities take up in each
+ * storage format, and how many bytes of lasso NBT a slot update
+ * sends for a full lasso with and without the trimmed share tag.
+ *
+ * Run with the jmhPayloadSizes task.
+ */
+public final class PayloadSizeReport {
+
+    /**
+     * The number of entities in a full lasso.
+     */
+    private static final int FULL_LASSO = 5;
+
+    private PayloadSizeReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        EmeraldLassoItem lasso = Fixtures.lassoItem();
+
+        System.out.printf("%-10s %10s %10s %10s%n", "entity", "inline", "deflate 1", "deflate 9");
+
+        for(String entity : Fixtures.ENTITIES) {
+            CompoundTag entityTag = Fixtures.load(entity);
+
+            System.out.printf("%-10s %10d %10d %10d%n", entity,
+                              size(entityTag),
+                              size(PayloadCodec.pack(entityTag, 1)),
+                              size(PayloadCodec.pack(entityTag, 9)));
+        }
+
+        System.out.println();
+        System.out.printf("%-24s %10s %10s%n", "slot update, 5 entities", "full tag", "share tag");
+
+        for(String entity : Fixtures.ENTITIES) {
+            ItemStack inlineLasso = fullLasso(Fixtures.load(entity), false);
+
+            ItemStack packedLasso = fullLasso(Fixtures.load(entity), true);
+
+            System.out.printf("%-24s %10d %10d%n", entity + " inline", size(inlineLasso.getTag()), size(lasso.getShareTag(inlineLasso)));
+            System.out.printf("%-24s %10d %10d%n", entity + " packed", size(packedLasso.getTag()), size(lasso.getShareTag(packedLasso)));
+        }
+    }
+
+    private static ItemStack fullLasso(CompoundTag entityTag, boolean packed) throws IOException {
+        ItemStack itemStack = new ItemStack(Items.LEAD);
+
+        LassoContents contents = LassoContents.of(itemStack);
+
+        ListTag entityList = new ListTag();
+
+        for(int i = 0; i < FULL_LASSO; i++) {
+            entityList.add(packed ? PayloadCodec.pack(entityTag, 1) : entityTag.copy());
+
+            contents.append(ContentsHeader.describe(entityTag));
+        }
+
+        contents.save();
+
+        CompoundTag stackTag = itemStack.getOrCreateTag();
+
+        stackTag.put("entities", entityList);
+        stackTag.putUUID("contents_id", UUID.randomUUID());
+        stackTag.putInt("Damage", 40);
+
+        return itemStack;
+    }
+
+    private static int size(CompoundTag tag) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+
+        NbtIo.write(tag, new DataOutputStream(byteStream));
+
+        return byteStream.size();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.Fixtures;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures naming the stored entities of a full lasso, which
+ * appendHoverText does for every entry every frame the tooltip
+ * is open. The last entry is a type that is no longer registered.
+ *
+ * The rest of appendHoverText reads the loaded config, which
+ * does not exist outside a game, so it is not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TooltipBenchmark {
+
+    private List<ContentsHeader.Entry> contents;
+
+    @Setup
+    public void setup() {
+        Fixtures.bootstrap();
+
+        contents = List.of(new ContentsHeader.Entry("minecraft:pig", "", 10.0f),
+                           new ContentsHeader.Entry("minecraft:villager", "Farmer Joe", 20.0f),
+                           new ContentsHeader.Entry("minecraft:horse", "", 26.0f),
+                           new ContentsHeader.Entry("minecraft:cow", "", 10.0f),
+                           new ContentsHeader.Entry("removedmod:sheep", "Dolly", 8.0f));
+    }
+
+    @Benchmark
+    public void typeDescriptions(Blackhole blackhole) {
+        for(ContentsHeader.Entry entry : contents) {
+            Component description = entry.getTypeDescription();
+
+            blackhole.consume(description);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import com.empressvalla.emeraldlasso.Fixtures;
+import com.empressvalla.emeraldlasso.item.advanced.EmeraldLassoItem;
+import com.empressvalla.emeraldlasso.item.advanced.LassoContents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lasso methods which read a full lasso: listing the
+ * stored entities, building the tag sent to clients on every slot
+ * update, and reading the contents the way isFoil and the tooltip do.
+ *
+ * The stack is a plain item so no mod capabilities are attached, the
+ * contents held in the benchmark stand in for the attached ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentsBenchmark {
+
+    private static final String ENTITIES = "entities";
+
+    private static final String CONTENTS_ID = "contents_id";
+
+    private EmeraldLassoItem lasso;
+
+    private ItemStack itemStack;
+
+    private CompoundTag stackTag;
+
+    private LassoContents contents;
+
+    @Setup
+    public void setup() {
+        lasso = Fixtures.lassoItem();
+
+        itemStack = new ItemStack(Items.LEAD);
+
+        contents = LassoContents.of(itemStack);
+
+        ListTag entityList = new ListTag();
+
+        for(int i = 0; i < 5; i++) {
+            CompoundTag entityTag = Fixtures.load(Fixtures.ENTITIES[i % Fixtures.ENTITIES.length]);
+
+            entityList.add(entityTag);
+
+            contents.append(ContentsHeader.describe(entityTag));
+        }
+
+        contents.save();
+
+        stackTag = itemStack.getOrCreateTag();
+
+        stackTag.put(ENTITIES, entityList);
+        stackTag.putUUID(CONTENTS_ID, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public List<CompoundTag> storedEntries() {
+        return EmeraldLassoItem.getStoredEntries(itemStack);
+    }
+
+    @Benchmark
+    public CompoundTag shareTag() {
+        return lasso.getShareTag(itemStack);
+    }
+
+    @Benchmark
+    public int contentsSize() {
+        return contents.size();
+    }
+
+    @Benchmark
+    public int entityListCount() {
+        return stackTag.getList(ENTITIES, Tag.TAG_COMPOUND).size();
+    }
+
+    @Benchmark
+    public List<ContentsHeader.Entry> headerRead() {
+        return ContentsHeader.read(stackTag);
+    }
+
+    @Benchmark
+    public ContentsHeader.Entry describeFromEntity() {
+        return ContentsHeader.describe(stackTag.getList(ENTITIES, Tag.TAG_COMPOUND).getCompound(1));
+    }
+
+}
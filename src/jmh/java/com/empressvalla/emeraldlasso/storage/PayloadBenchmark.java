@@ -0,0 +1,90 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import com.empressvalla.emeraldlasso.Fixtures;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what storing a captured entity costs in each storage
+ * format: writing it to the network or disk, copying it (every
+ * ItemStack.copy does this) and packing or unpacking it.
+ *
+ * Use the jmhPayloadSizes task for the matching size comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadBenchmark {
+
+    @Param({"pig", "villager", "horse"})
+    public String entity;
+
+    private CompoundTag entityTag;
+
+    private CompoundTag packedPayload;
+
+    @Setup
+    public void setup() throws IOException {
+        entityTag = Fixtures.load(entity);
+
+        packedPayload = PayloadCodec.pack(entityTag, 1);
+    }
+
+    @Benchmark
+    public int writeInline() throws IOException {
+        return write(entityTag);
+    }
+
+    @Benchmark
+    public int writePacked() throws IOException {
+        return write(packedPayload);
+    }
+
+    @Benchmark
+    public CompoundTag copyInline() {
+        return entityTag.copy();
+    }
+
+    @Benchmark
+    public CompoundTag copyPacked() {
+        return packedPayload.copy();
+    }
+
+    @Benchmark
+    public CompoundTag pack() throws IOException {
+        return PayloadCodec.pack(entityTag, 1);
+    }
+
+    @Benchmark
+    public CompoundTag unpack() throws IOException {
+        return PayloadCodec.unpack(packedPayload);
+    }
+
+    private static int write(CompoundTag tag) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(4096);
+
+        NbtIo.write(tag, new DataOutputStream(byteStream));
+
+        return byteStream.size();
+    }
+
+}
@@ -1,9 +1,14 @@
 package com.empressvalla.emeraldlasso;
 
+import com.empressvalla.emeraldlasso.block.ModBlockEntities;
+import com.empressvalla.emeraldlasso.block.ModBlocks;
 import com.empressvalla.emeraldlasso.config.ConfigManager;
 import com.empressvalla.emeraldlasso.item.ModCreativeModeTab;
 import com.empressvalla.emeraldlasso.item.ModItems;
+import com.empressvalla.emeraldlasso.item.advanced.LassoDispenseBehavior;
+import com.empressvalla.emeraldlasso.network.ModNetwork;
 import com.mojang.logging.LogUtils;
+import net.minecraft.world.level.block.DispenserBlock;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.CreativeModeTabEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
@@ -42,6 +47,10 @@ public class EmeraldLasso
 
         ModItems.register(eventBus);
 
+        ModBlocks.register(eventBus);
+
+        ModBlockEntities.register(eventBus);
+
         ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, ConfigManager.SPEC_COMMON, "emeraldlasso-common.toml");
 
         eventBus.addListener(this::setup);
@@ -56,12 +65,17 @@ public class EmeraldLasso
     private void addCreative(CreativeModeTabEvent.BuildContents event) {
         if(event.getTab() == ModCreativeModeTab.EMERALD_LASSO_TAB) {
             event.accept(ModItems.EMERALD_LASSO);
+            event.accept(ModBlocks.STASIS_PEN);
         }
     }
 
     private void setup(final FMLCommonSetupEvent event)
     {
         // some preinit code
+        ModNetwork.register();
+
+        // The dispenser registry is not thread safe, so this has to run on the main thread.
+        event.enqueueWork(() -> DispenserBlock.registerBehavior(ModItems.EMERALD_LASSO.get(), new LassoDispenseBehavior()));
     }
 
 }
@@ -0,0 +1,217 @@
+package com.empressvalla.emeraldlasso.audit;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This class is responsible for keeping an audit trail
+ * of who captured and released which entity and where,
+ * so that staff can look into duplication and theft.
+ *
+ * Recording a capture or release only copies a few numbers into a ring
+ * buffer, everything else, including turning them into text and all disk
+ * I/O, happens on the audit writer thread. The log is kept in the
+ * emeraldlasso-audit folder of the world and searched with
+ * /emeraldlasso audit search.
+ *
+ * @see ConfigManager#auditLogEnabled()
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public final class AuditLog {
+
+    /**
+     * The number of records that can wait for the writer before new ones are dropped.
+     */
+    private static final int BUFFER_CAPACITY = 8192;
+
+    /**
+     * The name of the folder in the world the log files are kept in.
+     */
+    private static final String DIRECTORY_NAME = "emeraldlasso-audit";
+
+    /**
+     * Responsible for storing the dimensions records refer to by index,
+     * so a record can hold its dimension as a number. Only added to from the server thread.
+     */
+    private static final List<ResourceKey<Level>> DIMENSIONS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Responsible for storing the buffer records are written to, {@code null} while the log is off.
+     */
+    @Nullable
+    private static volatile AuditRingBuffer buffer;
+
+    @Nullable
+    private static AuditWriter writer;
+
+    /**
+     * Responsible for storing the folder of the running server's log, searched even while the log is off.
+     */
+    @Nullable
+    private static volatile Path directory;
+
+    private AuditLog() {
+    }
+
+    /**
+     * This method is responsible for recording an entity
+     * being captured or released. Must only be called from
+     * the server thread.
+     *
+     * @param action What happened to the entity.
+     *
+     * @param actorId The UUID of the player responsible, {@code null} if it was not a player.
+     *
+     * @param entity The entity, while it is still or again in the level.
+     */
+    public static void record(Action action, @Nullable UUID actorId, Entity entity) {
+        AuditRingBuffer activeBuffer = buffer;
+
+        if(activeBuffer == null) {
+            return;
+        }
+
+        UUID entityId = entity.getUUID();
+
+        long header = (long) action.ordinal() << 56
+                      | (long) (dimensionIndex(entity.getLevel().dimension()) & 0xFFFFFF) << 32
+                      | BuiltInRegistries.ENTITY_TYPE.getId(entity.getType()) & 0xFFFFFFFFL;
+
+        activeBuffer.offer(System.currentTimeMillis(),
+                           header,
+                           actorId == null ? 0L : actorId.getMostSignificantBits(),
+                           actorId == null ? 0L : actorId.getLeastSignificantBits(),
+                           entityId.getMostSignificantBits(),
+                           entityId.getLeastSignificantBits(),
+                           (long) entity.getBlockX() << 32 | entity.getBlockZ() & 0xFFFFFFFFL,
+                           entity.getBlockY());
+    }
+
+    /**
+     * This method is responsible for returning whether
+     * the audit log is running.
+     *
+     * @return {@code true} if captures and releases are being recorded.
+     */
+    public static boolean isEnabled() {
+        return buffer != null;
+    }
+
+    /**
+     * This method is responsible for returning how many
+     * records have been dropped because the writer could
+     * not keep up, since the server started.
+     *
+     * @return The number of dropped records.
+     */
+    public static long getDropped() {
+        AuditRingBuffer activeBuffer = buffer;
+
+        return activeBuffer == null ? 0L : activeBuffer.getDropped();
+    }
+
+    /**
+     * This method is responsible for searching the log
+     * for the most recent records containing any of the
+     * given terms. This reads from disk, so it must not
+     * be called on the server thread.
+     *
+     * @param terms The terms to look for, such as a player UUID or an entity type. Matched ignoring case.
+     *
+     * @param limit The most records to return.
+     *
+     * @return The matching records, oldest first. Empty if no server is running.
+     *
+     * @throws IOException If the log could not be read.
+     */
+    public static List<String> search(List<String> terms, int limit) throws IOException {
+        Path logDirectory = directory;
+
+        return logDirectory == null ? List.of() : AuditSearch.search(logDirectory, terms, limit);
+    }
+
+    static String getDimension(int index) {
+        return index < DIMENSIONS.size() ? DIMENSIONS.get(index).location().toString() : "?";
+    }
+
+    private static int dimensionIndex(ResourceKey<Level> dimension) {
+        int index = DIMENSIONS.indexOf(dimension);
+
+        if(index < 0) {
+            DIMENSIONS.add(dimension);
+
+            index = DIMENSIONS.size() - 1;
+        }
+
+        return index;
+    }
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        directory = event.getServer().getWorldPath(LevelResource.ROOT).resolve(DIRECTORY_NAME);
+
+        ConfigSnapshot config = ConfigManager.getSnapshot();
+
+        if(!config.auditLogEnabled()) {
+            return;
+        }
+
+        AuditRingBuffer newBuffer = new AuditRingBuffer(BUFFER_CAPACITY);
+
+        writer = new AuditWriter(newBuffer, directory, config.auditLogMaxFiles());
+
+        writer.start();
+
+        buffer = newBuffer;
+    }
+
+    /**
+     * The writer is only stopped once the server has stopped, so that
+     * releases from the release queue during shutdown are still recorded.
+     */
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        buffer = null;
+
+        if(writer != null) {
+            writer.stop();
+
+            writer = null;
+        }
+
+        directory = null;
+
+        DIMENSIONS.clear();
+    }
+
+    /**
+     * An enum of the actions which are recorded.
+     */
+    public enum Action {
+        CAPTURE,
+        RELEASE;
+
+        public String getSerializedName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+}
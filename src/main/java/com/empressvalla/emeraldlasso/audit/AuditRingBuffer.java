@@ -0,0 +1,109 @@
+package com.empressvalla.emeraldlasso.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is responsible for passing fixed size audit
+ * records from the server thread to the audit writer
+ * without locks or allocation.
+ *
+ * Records are written into a preallocated array of longs by a single
+ * producer, the server thread, and read by a single consumer, the writer
+ * thread. When the buffer is full the new record is dropped and counted,
+ * so a slow disk can never hold up the server.
+ */
+final class AuditRingBuffer {
+
+    /**
+     * The number of longs making up a single record.
+     */
+    static final int RECORD_LONGS = 8;
+
+    private final long[] slots;
+
+    private final int mask;
+
+    /**
+     * Responsible for storing how many records have been published. Only written by the producer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Responsible for storing how many records have been read. Only written by the consumer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity The number of records the buffer holds, rounded up to a power of two.
+     */
+    AuditRingBuffer(int capacity) {
+        int roundedCapacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        this.slots = new long[roundedCapacity * RECORD_LONGS];
+        this.mask = roundedCapacity - 1;
+    }
+
+    /**
+     * This method is responsible for publishing a record.
+     * Must only be called from the producer thread.
+     *
+     * @return {@code true} if the record was published {@code false} if the buffer was full and it was dropped.
+     */
+    boolean offer(long time, long header, long playerMost, long playerLeast, long entityMost, long entityLeast, long horizontal, long vertical) {
+        long index = head.get();
+
+        if(index - tail.get() > mask) {
+            dropped.increment();
+
+            return false;
+        }
+
+        int offset = (int) (index & mask) * RECORD_LONGS;
+
+        slots[offset] = time;
+        slots[offset + 1] = header;
+        slots[offset + 2] = playerMost;
+        slots[offset + 3] = playerLeast;
+        slots[offset + 4] = entityMost;
+        slots[offset + 5] = entityLeast;
+        slots[offset + 6] = horizontal;
+        slots[offset + 7] = vertical;
+
+        // The release store makes the record visible to the consumer before the new head.
+        head.lazySet(index + 1);
+
+        return true;
+    }
+
+    /**
+     * This method is responsible for reading the next
+     * record, if there is one, into the given array.
+     * Must only be called from the consumer thread.
+     *
+     * @param record The array the record is copied into, at least RECORD_LONGS long.
+     *
+     * @return {@code true} if a record was read {@code false} if the buffer was empty.
+     */
+    boolean poll(long[] record) {
+        long index = tail.get();
+
+        if(index >= head.get()) {
+            return false;
+        }
+
+        System.arraycopy(slots, (int) (index & mask) * RECORD_LONGS, record, 0, RECORD_LONGS);
+
+        // The slot can only be reused by the producer once it has been copied out.
+        tail.lazySet(index + 1);
+
+        return true;
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+}
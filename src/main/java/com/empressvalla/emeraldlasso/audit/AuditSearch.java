@@ -0,0 +1,116 @@
+package com.empressvalla.emeraldlasso.audit;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This class is responsible for searching the audit
+ * log files for the most recent matching records.
+ *
+ * Files are read newest first and one line at a time, only the matches
+ * still wanted are kept, so searching never loads a whole file into
+ * memory however big the log has grown. It does disk I/O, so it must not
+ * be run on the server thread.
+ */
+final class AuditSearch {
+
+    private AuditSearch() {
+    }
+
+    /**
+     * This method is responsible for finding the most
+     * recent records containing any of the given terms.
+     *
+     * @param directory The directory the log files are in.
+     *
+     * @param terms The terms to look for, matched ignoring case.
+     *
+     * @param limit The most records to return.
+     *
+     * @return The matching records, oldest first.
+     */
+    static List<String> search(Path directory, List<String> terms, int limit) throws IOException {
+        if(!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        List<Path> files;
+
+        try(Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(AuditWriter::isLogFile).sorted(Comparator.reverseOrder()).toList();
+        }
+
+        List<String> lowerCaseTerms = terms.stream().map(term -> term.toLowerCase(Locale.ROOT)).toList();
+
+        // Filled newest file first, each file adds its matches in reverse so the list is newest first throughout.
+        List<String> matches = new ArrayList<>(limit);
+
+        for(Path file : files) {
+            if(matches.size() >= limit) {
+                break;
+            }
+
+            ArrayDeque<String> fileMatches = searchFile(file, lowerCaseTerms, limit - matches.size());
+
+            while(!fileMatches.isEmpty()) {
+                matches.add(fileMatches.pollLast());
+            }
+        }
+
+        Collections.reverse(matches);
+
+        return matches;
+    }
+
+    /**
+     * Only the last matches of the file are wanted, so the
+     * deque drops its oldest match once it is full.
+     */
+    private static ArrayDeque<String> searchFile(Path file, List<String> terms, int wanted) throws IOException {
+        ArrayDeque<String> fileMatches = new ArrayDeque<>(Math.min(wanted, 64));
+
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+
+            while((line = reader.readLine()) != null) {
+                if(matches(line, terms)) {
+                    if(fileMatches.size() >= wanted) {
+                        fileMatches.pollFirst();
+                    }
+
+                    fileMatches.addLast(line);
+                }
+            }
+        } catch(EOFException exception) {
+            // The file being written to is only flushed, not finished, so it has no gzip trailer yet.
+        }
+
+        return fileMatches;
+    }
+
+    private static boolean matches(String line, List<String> terms) {
+        String lowerCaseLine = line.toLowerCase(Locale.ROOT);
+
+        for(String term : terms) {
+            if(lowerCaseLine.contains(term)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.empressvalla.emeraldlasso.audit;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.registries.BuiltInRegistries;
+import org.slf4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is responsible for draining audit records
+ * from the ring buffer on its own thread and appending
+ * them to compressed log files.
+ *
+ * Each file is a single gzip stream which is flushed whenever the buffer
+ * runs dry, so everything written so far can be searched and survives a
+ * crash. A new file is started once the current one reaches its size
+ * limit, and the oldest files are deleted to keep the configured number.
+ */
+final class AuditWriter implements Runnable {
+
+    /**
+     * The compressed size a log file is rotated at.
+     */
+    private static final long MAX_FILE_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * How long the writer sleeps for when there is nothing to write.
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * The prefix and suffix of log file names. The timestamp in between sorts in the order the files were started.
+     */
+    static final String FILE_PREFIX = "audit-";
+
+    static final String FILE_SUFFIX = ".log.gz";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private final AuditRingBuffer buffer;
+
+    private final Path directory;
+
+    private final int maxFiles;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private Path currentFile;
+
+    private Writer output;
+
+    private long reportedDrops;
+
+    AuditWriter(AuditRingBuffer buffer, Path directory, int maxFiles) {
+        this.buffer = buffer;
+        this.directory = directory;
+        this.maxFiles = maxFiles;
+        this.thread = new Thread(this, "Emerald Lasso Audit Writer");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * This method is responsible for stopping the writer
+     * once everything in the buffer has been written.
+     */
+    void stop() {
+        running = false;
+
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        long[] record = new long[AuditRingBuffer.RECORD_LONGS];
+
+        try {
+            Files.createDirectories(directory);
+
+            openNewFile();
+
+            while(true) {
+                boolean wroteAny = false;
+
+                while(buffer.poll(record)) {
+                    writeRecord(record);
+
+                    wroteAny = true;
+                }
+
+                wroteAny |= writeDrops();
+
+                if(wroteAny) {
+                    output.flush();
+
+                    if(Files.size(currentFile) >= MAX_FILE_BYTES) {
+                        output.close();
+
+                        openNewFile();
+                    }
+                }
+
+                if(!running) {
+                    break;
+                }
+
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        } catch(IOException exception) {
+            LOGGER.error("The emerald lasso audit log could not be written, no more records will be kept until the server restarts", exception);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void openNewFile() throws IOException {
+        currentFile = directory.resolve(FILE_PREFIX + FILE_TIMESTAMP.format(Instant.now()) + FILE_SUFFIX);
+
+        // Sync flushing makes every flushed record readable without closing the stream.
+        output = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(currentFile), 8192, true), StandardCharsets.UTF_8));
+
+        deleteOldFiles();
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+
+        try(Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(AuditWriter::isLogFile).sorted().toList();
+        }
+
+        for(int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * Each record is written as a single tab separated line of
+     * time, action, player, entity type, entity, dimension and position.
+     */
+    private void writeRecord(long[] record) throws IOException {
+        long header = record[1];
+
+        AuditLog.Action action = AuditLog.Action.values()[(int) (header >>> 56)];
+
+        int dimensionIndex = (int) ((header >>> 32) & 0xFFFFFF);
+
+        int entityTypeId = (int) header;
+
+        output.write(Instant.ofEpochMilli(record[0]).toString());
+        output.write('\t');
+        output.write(action.getSerializedName());
+        output.write('\t');
+        output.write(record[2] == 0 && record[3] == 0 ? "-" : new UUID(record[2], record[3]).toString());
+        output.write('\t');
+        output.write(String.valueOf(BuiltInRegistries.ENTITY_TYPE.getKey(BuiltInRegistries.ENTITY_TYPE.byId(entityTypeId))));
+        output.write('\t');
+        output.write(new UUID(record[4], record[5]).toString());
+        output.write('\t');
+        output.write(AuditLog.getDimension(dimensionIndex));
+        output.write('\t');
+        output.write((int) (record[6] >> 32) + " " + record[7] + " " + (int) record[6]);
+        output.write('\n');
+    }
+
+    /**
+     * Dropped records are noted in the log itself, so a gap in the trail is never silent.
+     */
+    private boolean writeDrops() throws IOException {
+        long dropped = buffer.getDropped();
+
+        if(dropped == reportedDrops) {
+            return false;
+        }
+
+        LOGGER.warn("The emerald lasso audit log dropped {} records because the writer could not keep up", dropped - reportedDrops);
+
+        output.write(Instant.now().toString() + "\tdropped\t" + (dropped - reportedDrops) + '\n');
+
+        reportedDrops = dropped;
+
+        return true;
+    }
+
+    private void closeQuietly() {
+        if(output == null) {
+            return;
+        }
+
+        try {
+            output.close();
+        } catch(IOException exception) {
+            LOGGER.error("The emerald lasso audit log could not be closed", exception);
+        }
+    }
+
+    static boolean isLogFile(Path path) {
+        String name = path.getFileName().toString();
+
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+}
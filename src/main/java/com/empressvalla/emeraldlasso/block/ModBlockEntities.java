@@ -0,0 +1,41 @@
+package com.empressvalla.emeraldlasso.block;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.block.advanced.StasisPenBlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+/**
+ * This class is responsible for containing
+ * the registry of block entities which are used in the mod
+ * and allowing that registry to be added
+ * to the event bus.
+ */
+public class ModBlockEntities {
+
+    /**
+     * Responsible for storing the deferred register for block entities that will be registered for this mod.
+     */
+    public static final DeferredRegister<BlockEntityType<?>> BLOCK_ENTITIES =
+            DeferredRegister.create(ForgeRegistries.BLOCK_ENTITY_TYPES, EmeraldLasso.MOD_ID);
+
+    /**
+     * Responsible for storing a registry object that represents the Stasis Pen block entity.
+     */
+    public static final RegistryObject<BlockEntityType<StasisPenBlockEntity>> STASIS_PEN = BLOCK_ENTITIES.register("stasis_pen",
+            () -> BlockEntityType.Builder.of(StasisPenBlockEntity::new, ModBlocks.STASIS_PEN.get()).build(null));
+
+    /**
+     * This method will register the block entities for this mod
+     * to the event bus which is provided.
+     *
+     * @param eventBus The event bus for the registry to be added to.
+     */
+    public static void register(IEventBus eventBus) {
+        BLOCK_ENTITIES.register(eventBus);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.empressvalla.emeraldlasso.block;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.block.advanced.StasisPenBlock;
+import com.empressvalla.emeraldlasso.item.ModItems;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.SoundType;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.material.Material;
+import net.minecraft.world.level.material.MaterialColor;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.util.function.Supplier;
+
+/**
+ * This class is responsible for containing
+ * the registry of blocks which are used in the mod
+ * and allowing that registry to be added
+ * to the event bus.
+ */
+public class ModBlocks {
+
+    /**
+     * Responsible for storing the deferred register for blocks that will be registered for this mod.
+     */
+    public static final DeferredRegister<Block> BLOCKS =
+            DeferredRegister.create(ForgeRegistries.BLOCKS, EmeraldLasso.MOD_ID);
+
+    /**
+     * Responsible for storing a registry object that represents the Stasis Pen block.
+     */
+    public static final RegistryObject<Block> STASIS_PEN = registerBlock("stasis_pen",
+            () -> new StasisPenBlock(BlockBehaviour.Properties.of(Material.METAL, MaterialColor.EMERALD)
+                                                              .requiresCorrectToolForDrops()
+                                                              .strength(5.0f, 6.0f)
+                                                              .sound(SoundType.METAL)));
+
+    /**
+     * This method is responsible for registering a block
+     * along with the item used to place it.
+     *
+     * @param name The registry name of the block.
+     *
+     * @param block The supplier creating the block.
+     *
+     * @return The registry object of the block.
+     */
+    private static <T extends Block> RegistryObject<T> registerBlock(String name, Supplier<T> block) {
+        RegistryObject<T> registeredBlock = BLOCKS.register(name, block);
+
+        ModItems.ITEMS.register(name, () -> new BlockItem(registeredBlock.get(), new Item.Properties()));
+
+        return registeredBlock;
+    }
+
+    /**
+     * This method will register the blocks for this mod
+     * to the event bus which is provided.
+     *
+     * @param eventBus The event bus for the registry to be added to.
+     */
+    public static void register(IEventBus eventBus) {
+        BLOCKS.register(eventBus);
+    }
+
+}
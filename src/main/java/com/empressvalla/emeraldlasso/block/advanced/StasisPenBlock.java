@@ -0,0 +1,200 @@
+package com.empressvalla.emeraldlasso.block.advanced;
+
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import com.empressvalla.emeraldlasso.item.advanced.EmeraldLassoItem;
+import com.empressvalla.emeraldlasso.item.advanced.PlayerActionLimiter;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Explosion;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.BlockHitResult;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+
+/**
+ * This class is responsible for the stasis pen block,
+ * which keeps large numbers of entities taken from lassos
+ * without ticking them.
+ *
+ * Using the pen with a lasso moves the entities in the lasso
+ * into the pen. Using it with an empty hand releases the oldest
+ * entity on top of it, or a batch of them while sneaking. Filtered
+ * lookups and releases are done with the /emeraldlasso pen command.
+ * A pen holding entities cannot be mined or blown up.
+ *
+ * @see StasisPenBlockEntity
+ */
+public class StasisPenBlock extends BaseEntityBlock {
+
+    /**
+     * The number of entities released at once while sneaking.
+     */
+    private static final int BATCH_RELEASE_SIZE = 16;
+
+    /**
+     * The explosion resistance of a pen holding entities, the same as bedrock.
+     */
+    private static final float OCCUPIED_EXPLOSION_RESISTANCE = 3600000f;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public StasisPenBlock(Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    public RenderShape getRenderShape(BlockState blockState) {
+        return RenderShape.MODEL;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity newBlockEntity(BlockPos position, BlockState blockState) {
+        return new StasisPenBlockEntity(position, blockState);
+    }
+
+    @Override
+    public InteractionResult use(BlockState blockState, Level level, BlockPos position, Player player, InteractionHand hand, BlockHitResult hitResult) {
+        ItemStack heldItemStack = player.getItemInHand(hand);
+
+        boolean holdingLasso = heldItemStack.getItem() instanceof EmeraldLassoItem;
+
+        if(hand != InteractionHand.MAIN_HAND || (!holdingLasso && !heldItemStack.isEmpty())) {
+            return InteractionResult.PASS;
+        }
+
+        if(level.isClientSide()) {
+            return InteractionResult.SUCCESS;
+        }
+
+        if(!(level.getBlockEntity(position) instanceof StasisPenBlockEntity pen)) {
+            return InteractionResult.PASS;
+        }
+
+        ServerLevel serverLevel = (ServerLevel) level;
+
+        ConfigSnapshot config = ConfigManager.getSnapshot();
+
+        if(holdingLasso) {
+            int moved = pen.deposit(serverLevel, heldItemStack, config);
+
+            if(moved > 0) {
+                level.playSound(null, position, SoundEvents.ENDERMAN_TELEPORT, SoundSource.BLOCKS, 0.5f, 1f);
+            }
+
+            player.displayClientMessage(Component.translatable(moved > 0 ? "emeraldlasso.messages.pen.deposited" : "emeraldlasso.messages.pen.full",
+                                                               moved, pen.getStore().size(), config.stasisPenCapacity()), true);
+
+            return InteractionResult.CONSUME;
+        }
+
+        if(!PlayerActionLimiter.tryAcquire(player, PlayerActionLimiter.Action.RELEASE, config)) {
+            return InteractionResult.FAIL;
+        }
+
+        int released = pen.release(serverLevel, player.getUUID(), StasisPenQuery.ALL, player.isShiftKeyDown() ? BATCH_RELEASE_SIZE : 1, config);
+
+        if(released > 0) {
+            level.playSound(null, position, SoundEvents.CHICKEN_EGG, SoundSource.BLOCKS, 0.5f, 1f);
+        }
+
+        player.displayClientMessage(Component.translatable("emeraldlasso.messages.pen.released", released, pen.getStore().size()), true);
+
+        return InteractionResult.CONSUME;
+    }
+
+    /**
+     * Players cannot mine a pen while it holds entities, they have to be released first.
+     */
+    @Override
+    public float getDestroyProgress(BlockState blockState, Player player, BlockGetter level, BlockPos position) {
+        return isOccupied(level, position) ? 0f : super.getDestroyProgress(blockState, player, level, position);
+    }
+
+    /**
+     * Players in creative mode break blocks instantly, so they are refused here instead.
+     */
+    @Override
+    public boolean onDestroyedByPlayer(BlockState blockState, Level level, BlockPos position, Player player, boolean willHarvest, FluidState fluidState) {
+        if(!level.isClientSide() && isOccupied(level, position)) {
+            player.displayClientMessage(Component.translatable("emeraldlasso.messages.pen.occupied"), true);
+
+            return false;
+        }
+
+        return super.onDestroyedByPlayer(blockState, level, position, player, willHarvest, fluidState);
+    }
+
+    @Override
+    public float getExplosionResistance(BlockState blockState, BlockGetter level, BlockPos position, Explosion explosion) {
+        return isOccupied(level, position) ? OCCUPIED_EXPLOSION_RESISTANCE : super.getExplosionResistance(blockState, level, position, explosion);
+    }
+
+    /**
+     * Withers and the ender dragon cannot break a pen that holds entities either.
+     */
+    @Override
+    public boolean canEntityDestroy(BlockState blockState, BlockGetter level, BlockPos position, Entity entity) {
+        return !isOccupied(level, position) && super.canEntityDestroy(blockState, level, position, entity);
+    }
+
+    /**
+     * A pen can still be removed while it holds entities by commands
+     * such as /setblock or by other mods. Its entities are saved to a
+     * herd file then, rather than being lost or released all at once.
+     */
+    @Override
+    public void onRemove(BlockState blockState, Level level, BlockPos position, BlockState newBlockState, boolean isMoving) {
+        if(!blockState.is(newBlockState.getBlock()) && level instanceof ServerLevel serverLevel
+           && level.getBlockEntity(position) instanceof StasisPenBlockEntity pen) {
+            int count = pen.getStore().size();
+
+            try {
+                String name = pen.exportAll(serverLevel);
+
+                if(name != null) {
+                    LOGGER.warn("The stasis pen at {} was removed holding {} entities, they were saved to the herd {} and can be brought back with /emeraldlasso herd import {} world <pos>",
+                                position.toShortString(), count, name, name);
+                }
+            } catch(IOException exception) {
+                LOGGER.error("The stasis pen at {} was removed holding {} entities and they could not be saved", position.toShortString(), count, exception);
+            }
+        }
+
+        super.onRemove(blockState, level, position, newBlockState, isMoving);
+    }
+
+    /**
+     * This method is responsible for determining if
+     * the pen at a position holds any entities. Only
+     * the server knows what a pen holds.
+     *
+     * @param level The level the pen is in.
+     *
+     * @param position The position of the pen.
+     *
+     * @return {@code true} if the pen holds entities {@code false} otherwise.
+     */
+    private static boolean isOccupied(BlockGetter level, BlockPos position) {
+        return level.getBlockEntity(position) instanceof StasisPenBlockEntity pen && pen.getStore().size() > 0;
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.empressvalla.emeraldlasso.block.advanced;
+
+import com.empressvalla.emeraldlasso.block.ModBlockEntities;
+import com.empressvalla.emeraldlasso.command.HerdTransfer;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import com.empressvalla.emeraldlasso.item.advanced.EmeraldLassoItem;
+import com.empressvalla.emeraldlasso.storage.HerdFile;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class is responsible for holding the entities
+ * kept in a stasis pen. The entities are only kept as
+ * NBT, so however many there are they are never ticked.
+ *
+ * The block entity has no ticker and nothing is sent to clients,
+ * the entities are only ever read when they are released.
+ *
+ * @see StasisPenStore
+ */
+public class StasisPenBlockEntity extends BlockEntity {
+
+    private final StasisPenStore store = new StasisPenStore();
+
+    public StasisPenBlockEntity(BlockPos position, BlockState blockState) {
+        super(ModBlockEntities.STASIS_PEN.get(), position, blockState);
+    }
+
+    /**
+     * This method is responsible for returning the
+     * entities kept in the pen.
+     *
+     * @return The store holding the entities.
+     */
+    public StasisPenStore getStore() {
+        return store;
+    }
+
+    /**
+     * This method is responsible for moving entities
+     * out of a lasso and into the pen, up to the space
+     * left in the pen.
+     *
+     * @param level The level the pen is in.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param config The config snapshot the deposit was started with.
+     *
+     * @return The number of entities moved into the pen.
+     */
+    public int deposit(ServerLevel level, ItemStack itemStack, ConfigSnapshot config) {
+        List<CompoundTag> entityTags = EmeraldLassoItem.takeEntities(level, itemStack, config.stasisPenCapacity() - store.size());
+
+        for(CompoundTag entityTag : entityTags) {
+            store.add(entityTag);
+        }
+
+        if(!entityTags.isEmpty()) {
+            setChanged();
+        }
+
+        return entityTags.size();
+    }
+
+    /**
+     * This method is responsible for releasing the
+     * entities in the pen matching a query on top of
+     * and around the pen.
+     *
+     * @param level The level the pen is in.
+     *
+     * @param actorId The UUID of the player releasing the entities, {@code null} if it is not a player.
+     *
+     * @param query The query the released entities must match.
+     *
+     * @param count The most entities to release.
+     *
+     * @param config The config snapshot the release was started with.
+     *
+     * @return The number of entities released or queued to be released.
+     */
+    public int release(ServerLevel level, @Nullable UUID actorId, StasisPenQuery query, int count, ConfigSnapshot config) {
+        IntList ids = store.find(query, count);
+
+        if(ids.isEmpty()) {
+            return 0;
+        }
+
+        List<BlockPos> releasePositions = EmeraldLassoItem.findReleasePositions(level, worldPosition.above(), ids.size());
+
+        int released = 0;
+
+        for(int i = 0; i < ids.size(); i++) {
+            CompoundTag entityTag = store.remove(ids.getInt(i));
+
+            if(entityTag != null && EmeraldLassoItem.releaseEntity(level, actorId, entityTag, releasePositions.get(i % releasePositions.size()), config)) {
+                released++;
+            }
+        }
+
+        setChanged();
+
+        return released;
+    }
+
+    /**
+     * This method is responsible for saving every entity
+     * in the pen to a herd file when the pen is removed
+     * without being broken, for example by /setblock or
+     * another mod. Releasing thousands of entities around
+     * the pen would crush most of them, and a queue of
+     * releases would be lost if the server stopped, so
+     * they are kept on disk until they are imported again.
+     *
+     * @param level The level the pen was in.
+     *
+     * @return The name of the herd the entities were saved to, {@code null} if the pen was empty.
+     *
+     * @throws IOException If the herd file could not be written.
+     */
+    @Nullable
+    public String exportAll(ServerLevel level) throws IOException {
+        IntList ids = store.find(StasisPenQuery.ALL, Integer.MAX_VALUE);
+
+        if(ids.isEmpty()) {
+            return null;
+        }
+
+        String name = "pen_" + worldPosition.getX() + "_" + worldPosition.getY() + "_" + worldPosition.getZ() + "_" + level.getGameTime();
+
+        try(HerdFile.Writer writer = HerdFile.write(HerdTransfer.getHerdPath(level.getServer(), name))) {
+            for(int i = 0; i < ids.size(); i++) {
+                CompoundTag entityTag = store.remove(ids.getInt(i));
+
+                if(entityTag != null) {
+                    writer.write(entityTag);
+                }
+            }
+
+            writer.finish();
+        }
+
+        return name;
+    }
+
+    /**
+     * Only the pages which changed since the last save are encoded again.
+     */
+    @Override
+    protected void saveAdditional(CompoundTag compoundTag) {
+        super.saveAdditional(compoundTag);
+
+        compoundTag.put(NBTIdentifiers.PAGES, store.save());
+    }
+
+    @Override
+    public void load(CompoundTag compoundTag) {
+        super.load(compoundTag);
+
+        store.load(compoundTag.getList(NBTIdentifiers.PAGES, Tag.TAG_COMPOUND));
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier for the pages of entities kept in the pen.
+         */
+        public static final String PAGES = "pages";
+    }
+
+}
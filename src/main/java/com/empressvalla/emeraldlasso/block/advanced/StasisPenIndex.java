@@ -0,0 +1,168 @@
+package com.empressvalla.emeraldlasso.block.advanced;
+
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSets;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is responsible for indexing the entities
+ * kept in a stasis pen by type, name and age, so that
+ * finding matching entities only walks the smallest set
+ * of candidates instead of every entity in the pen.
+ *
+ * The index only holds the header entries, it is rebuilt from the
+ * pages when the pen is loaded without decoding any stored entity.
+ */
+final class StasisPenIndex {
+
+    /**
+     * Responsible for storing the entry of every stored entity, keyed by its ID in the pen.
+     */
+    private final Int2ObjectOpenHashMap<ContentsHeader.Entry> entries = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Responsible for storing the IDs of every stored entity, in the order they are looked up in.
+     */
+    private final IntSortedSet all = new IntRBTreeSet();
+
+    private final Map<String, IntSortedSet> byType = new HashMap<>();
+
+    /**
+     * Responsible for storing the IDs of named entities, keyed by their name in lower case.
+     */
+    private final Map<String, IntSortedSet> byName = new HashMap<>();
+
+    private final IntSortedSet babies = new IntRBTreeSet();
+
+    void add(int id, ContentsHeader.Entry entry) {
+        entries.put(id, entry);
+
+        all.add(id);
+
+        byType.computeIfAbsent(entry.typeId(), key -> new IntRBTreeSet()).add(id);
+
+        if(!entry.name().isEmpty()) {
+            byName.computeIfAbsent(StasisPenQuery.normaliseName(entry.name()), key -> new IntRBTreeSet()).add(id);
+        }
+
+        if(StasisPenQuery.isBaby(entry)) {
+            babies.add(id);
+        }
+    }
+
+    void remove(int id) {
+        ContentsHeader.Entry entry = entries.remove(id);
+
+        if(entry == null) {
+            return;
+        }
+
+        all.remove(id);
+
+        removeFrom(byType, entry.typeId(), id);
+
+        if(!entry.name().isEmpty()) {
+            removeFrom(byName, StasisPenQuery.normaliseName(entry.name()), id);
+        }
+
+        babies.remove(id);
+    }
+
+    void clear() {
+        entries.clear();
+        all.clear();
+        byType.clear();
+        byName.clear();
+        babies.clear();
+    }
+
+    ContentsHeader.Entry get(int id) {
+        return entries.get(id);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * This method is responsible for finding the IDs
+     * of the stored entities matching a query.
+     *
+     * @param query The query to match.
+     *
+     * @param limit The most IDs to return.
+     *
+     * @return The matching IDs, oldest first.
+     */
+    IntList find(StasisPenQuery query, int limit) {
+        IntSortedSet candidates = all;
+
+        if(query.typeId() != null) {
+            candidates = smallest(candidates, byType.get(query.typeId()));
+        }
+
+        if(query.name() != null) {
+            candidates = smallest(candidates, byName.get(query.name()));
+        }
+
+        if(query.age() == StasisPenQuery.Age.BABY) {
+            candidates = smallest(candidates, babies);
+        }
+
+        IntList found = new IntArrayList(Math.min(limit, candidates.size()));
+
+        IntIterator iterator = candidates.iterator();
+
+        while(found.size() < limit && iterator.hasNext()) {
+            int id = iterator.nextInt();
+
+            if(query.matches(entries.get(id))) {
+                found.add(id);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * This method is responsible for counting the
+     * stored entities matching a query.
+     *
+     * @param query The query to match.
+     *
+     * @return The number of matching entities.
+     */
+    int count(StasisPenQuery query) {
+        if(query.equals(StasisPenQuery.ALL)) {
+            return all.size();
+        }
+
+        return find(query, Integer.MAX_VALUE).size();
+    }
+
+    private static IntSortedSet smallest(IntSortedSet candidates, @Nullable IntSortedSet indexed) {
+        if(indexed == null) {
+            return IntSortedSets.EMPTY_SET;
+        }
+
+        return indexed.size() < candidates.size() ? indexed : candidates;
+    }
+
+    private static void removeFrom(Map<String, IntSortedSet> index, String key, int id) {
+        IntSortedSet ids = index.get(key);
+
+        if(ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.empressvalla.emeraldlasso.block.advanced;
+
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import net.minecraft.nbt.Tag;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * A record holding a filter over the entities kept in a stasis pen.
+ *
+ * @param typeId The registry name of the entity type to match, {@code null} to match any type.
+ *
+ * @param name The custom name to match ignoring case, {@code null} to match any name.
+ *
+ * @param age Which ages to match.
+ */
+public record StasisPenQuery(@Nullable String typeId, @Nullable String name, Age age) {
+
+    /**
+     * A query matching every entity.
+     */
+    public static final StasisPenQuery ALL = new StasisPenQuery(null, null, Age.ANY);
+
+    /**
+     * This method is responsible for determining
+     * if an entry matches the query.
+     *
+     * @param entry The entry describing the stored entity.
+     *
+     * @return {@code true} if the entry matches {@code false} otherwise.
+     */
+    public boolean matches(ContentsHeader.Entry entry) {
+        return (typeId == null || typeId.equals(entry.typeId()))
+               && (name == null || name.equals(normaliseName(entry.name())))
+               && age.matches(isBaby(entry));
+    }
+
+    /**
+     * This method is responsible for building a query
+     * from the filter typed into a command. The filter is
+     * made up of type=, name= and age= terms separated by
+     * spaces, I.E "type=minecraft:cow age=baby". A name with
+     * spaces in it can be given with underscores.
+     *
+     * @param filter The filter, an empty string matches every entity.
+     *
+     * @return The query or {@code null} if the filter is malformed.
+     */
+    @Nullable
+    public static StasisPenQuery parse(String filter) {
+        String typeId = null;
+
+        String name = null;
+
+        Age age = Age.ANY;
+
+        for(String term : filter.trim().split("\\s+")) {
+            if(term.isEmpty()) {
+                continue;
+            }
+
+            int separator = term.indexOf('=');
+
+            if(separator <= 0 || separator == term.length() - 1) {
+                return null;
+            }
+
+            String value = term.substring(separator + 1);
+
+            switch(term.substring(0, separator).toLowerCase(Locale.ROOT)) {
+                case "type" -> typeId = value.contains(":") ? value : "minecraft:" + value;
+                case "name" -> name = normaliseName(value.replace('_', ' '));
+                case "age" -> {
+                    age = Age.byName(value);
+
+                    if(age == null) {
+                        return null;
+                    }
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        return new StasisPenQuery(typeId, name, age);
+    }
+
+    /**
+     * This method is responsible for returning the form
+     * names are indexed and compared in.
+     *
+     * @param name The custom name of an entity.
+     *
+     * @return The name in lower case.
+     */
+    static String normaliseName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * This method is responsible for determining if
+     * a stored entity is a baby from how it looks, so
+     * that the entity itself never has to be decoded.
+     *
+     * @param entry The entry describing the stored entity.
+     *
+     * @return {@code true} if the entity is a baby {@code false} otherwise.
+     */
+    static boolean isBaby(ContentsHeader.Entry entry) {
+        return entry.look().getInt(NBTIdentifiers.AGE) < 0
+               || (entry.look().contains(NBTIdentifiers.IS_BABY, Tag.TAG_BYTE) && entry.look().getBoolean(NBTIdentifiers.IS_BABY));
+    }
+
+    /**
+     * An enum of the ages a query can match.
+     */
+    public enum Age {
+        ANY,
+        BABY,
+        ADULT;
+
+        private boolean matches(boolean baby) {
+            return this == ANY || (this == BABY) == baby;
+        }
+
+        @Nullable
+        private static Age byName(String name) {
+            for(Age age : values()) {
+                if(age.name().equalsIgnoreCase(name)) {
+                    return age;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier vanilla uses for the age of breedable entities, negative for babies.
+         */
+        public static final String AGE = "Age";
+
+        /**
+         * The key identifier vanilla uses for zombies and piglins that are babies.
+         */
+        public static final String IS_BABY = "IsBaby";
+    }
+
+}
@@ -0,0 +1,414 @@
+package com.empressvalla.emeraldlasso.block.advanced;
+
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This class is responsible for holding the entities kept
+ * in a stasis pen, split into fixed size pages.
+ *
+ * Each page keeps the header entries of its entities as plain NBT and the
+ * entities themselves as a single compressed block. The compressed block is
+ * only unpacked when an entity is taken out of the page, and the encoded page
+ * is kept after every save, so saving the pen only encodes the pages which
+ * changed since the last save. Every other page is written exactly as it
+ * was loaded or last encoded.
+ *
+ * An entity's ID is its page and slot, IDs are reused once the entity
+ * in them is taken out.
+ */
+public final class StasisPenStore {
+
+    /**
+     * The number of entities kept in a single page.
+     */
+    static final int PAGE_SIZE = 64;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private final List<Page> pages = new ArrayList<>();
+
+    /**
+     * Responsible for storing which pages have a free slot.
+     */
+    private final BitSet pagesWithSpace = new BitSet();
+
+    private final StasisPenIndex index = new StasisPenIndex();
+
+    /**
+     * This method is responsible for returning how
+     * many entities are kept in the store.
+     *
+     * @return The number of stored entities.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * This method is responsible for adding an entity to the store.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @return The ID the entity was stored under.
+     */
+    public int add(CompoundTag entityTag) {
+        int pageNumber = pagesWithSpace.nextSetBit(0);
+
+        if(pageNumber < 0 || pageNumber >= pages.size()) {
+            pageNumber = pages.size();
+
+            pages.add(new Page());
+
+            pagesWithSpace.set(pageNumber);
+        }
+
+        Page page = pages.get(pageNumber);
+
+        int slot = page.add(entityTag);
+
+        if(page.isFull()) {
+            pagesWithSpace.clear(pageNumber);
+        }
+
+        int id = pageNumber * PAGE_SIZE + slot;
+
+        index.add(id, page.entries[slot]);
+
+        return id;
+    }
+
+    /**
+     * This method is responsible for taking an
+     * entity out of the store.
+     *
+     * @param id The ID the entity was stored under.
+     *
+     * @return The saved NBT of the entity or {@code null} if there is no entity with the ID or its page is corrupt.
+     */
+    @Nullable
+    public CompoundTag remove(int id) {
+        int pageNumber = id / PAGE_SIZE;
+
+        if(index.get(id) == null || pageNumber >= pages.size()) {
+            return null;
+        }
+
+        index.remove(id);
+
+        pagesWithSpace.set(pageNumber);
+
+        return pages.get(pageNumber).remove(id % PAGE_SIZE);
+    }
+
+    /**
+     * This method is responsible for returning the entry
+     * describing a stored entity.
+     *
+     * @param id The ID the entity was stored under.
+     *
+     * @return The entry or {@code null} if there is no entity with the ID.
+     */
+    @Nullable
+    public ContentsHeader.Entry getEntry(int id) {
+        return index.get(id);
+    }
+
+    /**
+     * This method is responsible for finding the stored
+     * entities matching a query, using the index.
+     *
+     * @param query The query to match.
+     *
+     * @param limit The most IDs to return.
+     *
+     * @return The IDs of the matching entities, oldest slots first.
+     */
+    public IntList find(StasisPenQuery query, int limit) {
+        return index.find(query, limit);
+    }
+
+    /**
+     * This method is responsible for counting the
+     * stored entities matching a query.
+     *
+     * @param query The query to match.
+     *
+     * @return The number of matching entities.
+     */
+    public int count(StasisPenQuery query) {
+        return index.count(query);
+    }
+
+    /**
+     * This method is responsible for writing the store.
+     * Only pages that changed since they were last
+     * written are encoded again.
+     *
+     * @return The list of encoded pages.
+     */
+    public ListTag save() {
+        ListTag pageList = new ListTag();
+
+        for(int pageNumber = 0; pageNumber < pages.size(); pageNumber++) {
+            Page page = pages.get(pageNumber);
+
+            if(page.used > 0) {
+                pageList.add(page.encode(pageNumber));
+            }
+        }
+
+        return pageList;
+    }
+
+    /**
+     * This method is responsible for replacing the
+     * contents of the store with saved pages. The
+     * entities themselves are left packed until they
+     * are taken out.
+     *
+     * @param pageList The list of encoded pages.
+     */
+    public void load(ListTag pageList) {
+        pages.clear();
+
+        pagesWithSpace.clear();
+
+        index.clear();
+
+        for(int i = 0; i < pageList.size(); i++) {
+            CompoundTag pageTag = pageList.getCompound(i);
+
+            int pageNumber = pageTag.getInt(NBTIdentifiers.PAGE);
+
+            while(pages.size() <= pageNumber) {
+                pagesWithSpace.set(pages.size());
+
+                pages.add(new Page());
+            }
+
+            Page page = Page.load(pageTag);
+
+            pages.set(pageNumber, page);
+
+            if(page.isFull()) {
+                pagesWithSpace.clear(pageNumber);
+            }
+
+            for(int slot = 0; slot < PAGE_SIZE; slot++) {
+                if(page.entries[slot] != null) {
+                    index.add(pageNumber * PAGE_SIZE + slot, page.entries[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * An inner class for holding a single page of entities.
+     */
+    private static class Page {
+
+        private final ContentsHeader.Entry[] entries = new ContentsHeader.Entry[PAGE_SIZE];
+
+        /**
+         * Responsible for storing the unpacked entities, {@code null} while they are still packed.
+         */
+        @Nullable
+        private CompoundTag[] entities;
+
+        /**
+         * Responsible for storing the page as it was last encoded, {@code null} if it changed since.
+         * The tag is never modified once made, so it is safe to hand to the chunk writer every save.
+         */
+        @Nullable
+        private CompoundTag encoded;
+
+        private int used;
+
+        private boolean isFull() {
+            return used >= PAGE_SIZE;
+        }
+
+        private int add(CompoundTag entityTag) {
+            CompoundTag[] unpacked = unpack();
+
+            int slot = 0;
+
+            while(entries[slot] != null) {
+                slot++;
+            }
+
+            entries[slot] = ContentsHeader.describe(entityTag);
+
+            unpacked[slot] = entityTag;
+
+            used++;
+
+            encoded = null;
+
+            return slot;
+        }
+
+        @Nullable
+        private CompoundTag remove(int slot) {
+            CompoundTag[] unpacked = unpack();
+
+            CompoundTag entityTag = unpacked[slot];
+
+            entries[slot] = null;
+
+            unpacked[slot] = null;
+
+            used--;
+
+            encoded = null;
+
+            return entityTag;
+        }
+
+        private CompoundTag[] unpack() {
+            if(entities != null) {
+                return entities;
+            }
+
+            entities = new CompoundTag[PAGE_SIZE];
+
+            if(encoded == null) {
+                return entities;
+            }
+
+            byte[] packed = encoded.getByteArray(NBTIdentifiers.PACKED);
+
+            try(DataInputStream input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(packed)))) {
+                CompoundTag entityTags = NbtIo.read(input, NbtAccounter.UNLIMITED);
+
+                for(int slot = 0; slot < PAGE_SIZE; slot++) {
+                    if(entries[slot] != null) {
+                        entities[slot] = entityTags.getCompound(Integer.toString(slot));
+                    }
+                }
+            } catch(IOException exception) {
+                LOGGER.error("A stasis pen page could not be unpacked, the entities in it are lost", exception);
+            }
+
+            return entities;
+        }
+
+        private CompoundTag encode(int pageNumber) {
+            if(encoded != null) {
+                return encoded;
+            }
+
+            CompoundTag[] unpacked = unpack();
+
+            CompoundTag pageTag = new CompoundTag();
+
+            ListTag entryList = new ListTag();
+
+            CompoundTag entityTags = new CompoundTag();
+
+            for(int slot = 0; slot < PAGE_SIZE; slot++) {
+                if(entries[slot] == null) {
+                    continue;
+                }
+
+                CompoundTag entryTag = entries[slot].save();
+
+                entryTag.putByte(NBTIdentifiers.SLOT, (byte) slot);
+
+                entryList.add(entryTag);
+
+                if(unpacked[slot] != null) {
+                    entityTags.put(Integer.toString(slot), unpacked[slot]);
+                }
+            }
+
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+
+            try(DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(byteStream))) {
+                NbtIo.write(entityTags, output);
+            } catch(IOException exception) {
+                // Never thrown, the bytes are written to memory.
+                LOGGER.error("A stasis pen page could not be packed", exception);
+            }
+
+            pageTag.putInt(NBTIdentifiers.PAGE, pageNumber);
+            pageTag.put(NBTIdentifiers.ENTRIES, entryList);
+            pageTag.putByteArray(NBTIdentifiers.PACKED, byteStream.toByteArray());
+
+            encoded = pageTag;
+
+            // The entities are packed again, so they are only held unpacked until the next save.
+            entities = null;
+
+            return pageTag;
+        }
+
+        private static Page load(CompoundTag pageTag) {
+            Page page = new Page();
+
+            ListTag entryList = pageTag.getList(NBTIdentifiers.ENTRIES, Tag.TAG_COMPOUND);
+
+            for(int i = 0; i < entryList.size(); i++) {
+                CompoundTag entryTag = entryList.getCompound(i);
+
+                int slot = entryTag.getByte(NBTIdentifiers.SLOT);
+
+                if(slot >= 0 && slot < PAGE_SIZE && page.entries[slot] == null) {
+                    page.entries[slot] = ContentsHeader.Entry.load(entryTag);
+
+                    page.used++;
+                }
+            }
+
+            page.encoded = pageTag;
+
+            return page;
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier for the number of a page.
+         */
+        public static final String PAGE = "page";
+
+        /**
+         * The key identifier for the header entries of the entities in a page.
+         */
+        public static final String ENTRIES = "entries";
+
+        /**
+         * The key identifier for the slot an entity is kept in.
+         */
+        public static final String SLOT = "slot";
+
+        /**
+         * The key identifier for the packed entities of a page.
+         */
+        public static final String PACKED = "packed";
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.empressvalla.emeraldlasso.client;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.item.advanced.LassoContentsTooltip;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterClientTooltipComponentFactoriesEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * This class is responsible for registering the
+ * client only parts of the mod.
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+public class ClientEvents {
+
+    @SubscribeEvent
+    public static void onRegisterTooltipComponents(RegisterClientTooltipComponentFactoriesEvent event) {
+        event.register(LassoContentsTooltip.class, ClientLassoContentsTooltip::new);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.empressvalla.emeraldlasso.client;
+
+import com.empressvalla.emeraldlasso.item.advanced.LassoContentsTooltip;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import com.mojang.blaze3d.vertex.PoseStack;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.screens.inventory.InventoryScreen;
+import net.minecraft.client.gui.screens.inventory.tooltip.ClientTooltipComponent;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.entity.ItemRenderer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.LivingEntity;
+import org.joml.Quaternionf;
+
+import java.util.List;
+
+/**
+ * This class is responsible for rendering a small
+ * 3D preview of every entity stored in a lasso, in a
+ * row under the tooltip text.
+ *
+ * The preview entities come from the PreviewCache, so nothing
+ * is built while the tooltip stays open.
+ *
+ * @see PreviewCache
+ */
+public class ClientLassoContentsTooltip implements ClientTooltipComponent {
+
+    /**
+     * The width in pixels given to each preview.
+     */
+    private static final int SLOT_WIDTH = 26;
+
+    /**
+     * The height in pixels of the row of previews.
+     */
+    private static final int PREVIEW_HEIGHT = 30;
+
+    /**
+     * The size in pixels the largest side of an entity is scaled to.
+     */
+    private static final float PREVIEW_SIZE = 22.0f;
+
+    /**
+     * The rotation which turns the entity the right way up, entities are rendered upside down in GUI space.
+     * This is never modified.
+     */
+    private static final Quaternionf UPRIGHT = new Quaternionf().rotateZ((float) Math.PI);
+
+    private final List<ContentsHeader.Entry> contents;
+
+    public ClientLassoContentsTooltip(LassoContentsTooltip tooltip) {
+        this.contents = tooltip.contents();
+    }
+
+    @Override
+    public int getHeight() {
+        return PREVIEW_HEIGHT + 2;
+    }
+
+    @Override
+    public int getWidth(Font font) {
+        return contents.size() * SLOT_WIDTH;
+    }
+
+    @Override
+    public void renderImage(Font font, int x, int y, PoseStack poseStack, ItemRenderer itemRenderer) {
+        ClientLevel level = Minecraft.getInstance().level;
+
+        if(level == null) {
+            return;
+        }
+
+        for(int i = 0; i < contents.size(); i++) {
+            LivingEntity preview = PreviewCache.get(contents.get(i), level);
+
+            if(preview == null) {
+                continue;
+            }
+
+            int scale = Mth.clamp((int) (PREVIEW_SIZE / Math.max(preview.getBbHeight(), preview.getBbWidth())), 1, 30);
+
+            InventoryScreen.renderEntityInInventory(poseStack, x + i * SLOT_WIDTH + SLOT_WIDTH / 2, y + PREVIEW_HEIGHT - 2,
+                                                    scale, UPRIGHT, null, preview);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.empressvalla.emeraldlasso.client;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.item.advanced.CapturePrediction;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.RenderLivingEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * This class is responsible for applying predicted
+ * captures on the client. Entities predicted to be
+ * captured are not rendered, and predictions are
+ * dropped once they are answered or time out.
+ *
+ * @see CapturePrediction
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID, value = Dist.CLIENT)
+public final class PredictionEvents {
+
+    private PredictionEvents() {
+    }
+
+    @SubscribeEvent
+    public static void onRenderLiving(RenderLivingEvent.Pre<?, ?> event) {
+        if(CapturePrediction.isHidden(event.getEntity().getId())) {
+            event.setCanceled(true);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        Minecraft minecraft = Minecraft.getInstance();
+
+        if(event.phase == TickEvent.Phase.END && minecraft.level != null) {
+            CapturePrediction.tick(minecraft.level.getGameTime());
+        }
+    }
+
+    /**
+     * The server removing the entity is what confirms the capture.
+     */
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if(event.getLevel().isClientSide()) {
+            CapturePrediction.forget(event.getEntity().getId());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        CapturePrediction.clear();
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.empressvalla.emeraldlasso.client;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import com.mojang.logging.LogUtils;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.lang.ref.SoftReference;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class is responsible for holding the entities
+ * built to preview the contents of a lasso, so that they
+ * are only built once instead of every frame.
+ *
+ * Previews are keyed by the type and look of the header entry, so lassos
+ * holding entities that look the same share a preview. The cache is
+ * bounded, held through soft references so the garbage collector can
+ * take it back under memory pressure, and emptied shortly after the
+ * last lasso tooltip closes or when the level unloads.
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID, value = Dist.CLIENT)
+public final class PreviewCache {
+
+    /**
+     * The maximum number of previews kept at once.
+     */
+    private static final int MAX_ENTRIES = 64;
+
+    /**
+     * How many client ticks without a preview being drawn before the tooltip counts as closed.
+     */
+    private static final int IDLE_TICKS = 20;
+
+    /**
+     * The yaw the previews are turned to, so they are seen from the front and a little to the side.
+     */
+    private static final float PREVIEW_YAW = 210.0f;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /**
+     * Responsible for storing the previews keyed by type and look. Only accessed from the render thread.
+     */
+    private static final Map<PreviewKey, SoftReference<LivingEntity>> PREVIEWS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PreviewKey, SoftReference<LivingEntity>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Responsible for storing the types and looks which could not be turned into a preview,
+     * so that building them is not attempted every frame.
+     */
+    private static final Set<PreviewKey> UNRENDERABLE = new HashSet<>();
+
+    /**
+     * Responsible for storing the level the previews were built in.
+     */
+    @Nullable
+    private static ClientLevel previewLevel;
+
+    private static int idleTicks;
+
+    private PreviewCache() {
+    }
+
+    /**
+     * This method is responsible for returning the preview
+     * entity for a header entry, building it if it is not
+     * cached yet.
+     *
+     * @param entry The entry describing the stored entity.
+     *
+     * @param level The level the client is in.
+     *
+     * @return The preview or {@code null} if the entry can not be previewed.
+     */
+    @Nullable
+    public static LivingEntity get(ContentsHeader.Entry entry, ClientLevel level) {
+        idleTicks = 0;
+
+        if(level != previewLevel) {
+            clear();
+
+            previewLevel = level;
+        }
+
+        PreviewKey key = new PreviewKey(entry.typeId(), entry.look());
+
+        SoftReference<LivingEntity> reference = PREVIEWS.get(key);
+
+        LivingEntity preview = reference == null ? null : reference.get();
+
+        if(preview != null || UNRENDERABLE.contains(key)) {
+            return preview;
+        }
+
+        preview = build(entry, level);
+
+        if(preview == null) {
+            UNRENDERABLE.add(key);
+        } else {
+            PREVIEWS.put(key, new SoftReference<>(preview));
+        }
+
+        return preview;
+    }
+
+    /**
+     * This method is responsible for building a preview
+     * entity from the type and look kept in the header.
+     *
+     * @param entry The entry describing the stored entity.
+     *
+     * @param level The level the client is in.
+     *
+     * @return The preview or {@code null} if the entity is not a living entity or could not be loaded.
+     */
+    @Nullable
+    private static LivingEntity build(ContentsHeader.Entry entry, ClientLevel level) {
+        CompoundTag previewTag = entry.look().copy();
+
+        previewTag.putString(NBTIdentifiers.ENTITY_ID, entry.typeId());
+
+        Entity entity;
+
+        try {
+            entity = EntityType.create(previewTag, level).orElse(null);
+        } catch (Exception exception) {
+            // Some modded entities can not be loaded without their full NBT, they are just not previewed.
+            LOGGER.debug("Could not build a preview of {}", entry.typeId(), exception);
+
+            return null;
+        }
+
+        if(!(entity instanceof LivingEntity livingEntity)) {
+            return null;
+        }
+
+        livingEntity.setYRot(PREVIEW_YAW);
+        livingEntity.yBodyRot = PREVIEW_YAW;
+        livingEntity.yHeadRot = PREVIEW_YAW;
+
+        return livingEntity;
+    }
+
+    /**
+     * This method is responsible for throwing away
+     * every cached preview.
+     */
+    public static void clear() {
+        PREVIEWS.clear();
+
+        UNRENDERABLE.clear();
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if(event.phase != TickEvent.Phase.END || (PREVIEWS.isEmpty() && UNRENDERABLE.isEmpty())) {
+            return;
+        }
+
+        if(++idleTicks > IDLE_TICKS) {
+            clear();
+        }
+    }
+
+    /**
+     * The previews hold on to the level they were built in,
+     * so they are thrown away with it.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if(event.getLevel() == previewLevel) {
+            clear();
+
+            previewLevel = null;
+        }
+    }
+
+    /**
+     * A record identifying what a preview looks like. Two entries
+     * with an equal type and look share the same preview.
+     *
+     * @param typeId The registry name of the entity type. I.E minecraft:pig
+     *
+     * @param look The NBT keys which change how the entity looks. This must not be modified.
+     */
+    private record PreviewKey(String typeId, CompoundTag look) {
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier vanilla uses for the entity type.
+         */
+        public static final String ENTITY_ID = "id";
+    }
+
+}
@@ -0,0 +1,510 @@
+package com.empressvalla.emeraldlasso.command;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import com.empressvalla.emeraldlasso.item.ModItems;
+import com.empressvalla.emeraldlasso.item.advanced.EmeraldLassoItem;
+import com.empressvalla.emeraldlasso.storage.HerdFile;
+import com.mojang.logging.LogUtils;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * This class is responsible for running herd exports and
+ * imports a little at a time over many server ticks, so that
+ * moving thousands of entities never stalls the server.
+ *
+ * Every transfer handles one entity at a time, streaming it straight to
+ * or from its herd file, and all the running transfers share a fixed
+ * amount of time each tick. The player who started a transfer is told
+ * how far it has got every few seconds and when it is done.
+ *
+ * @see HerdFile
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public final class HerdTransfer {
+
+    /**
+     * How long all the running transfers can spend each tick.
+     */
+    private static final long TICK_BUDGET_NANOS = 2_000_000L;
+
+    /**
+     * How many ticks pass between progress messages.
+     */
+    private static final int PROGRESS_INTERVAL_TICKS = 100;
+
+    /**
+     * How many spots around the chosen position imported entities are spread over.
+     */
+    private static final int RELEASE_SPOTS = 25;
+
+    /**
+     * The name of the folder in the world herd files are kept in.
+     */
+    private static final String DIRECTORY_NAME = "emeraldlasso-herds";
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /**
+     * Responsible for storing the transfers still running. Only accessed from the server thread.
+     */
+    private static final List<Transfer> TRANSFERS = new ArrayList<>();
+
+    private HerdTransfer() {
+    }
+
+    /**
+     * This method is responsible for returning the
+     * path of the herd file with the given name.
+     *
+     * @param server The server the file belongs to.
+     *
+     * @param name The name of the herd.
+     *
+     * @return The path of the herd file.
+     */
+    public static Path getHerdPath(MinecraftServer server, String name) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(DIRECTORY_NAME).resolve(name + HerdFile.EXTENSION);
+    }
+
+    /**
+     * This method is responsible for determining if a
+     * transfer using the given herd file is running.
+     *
+     * @param name The name of the herd.
+     *
+     * @return {@code true} if the herd file is in use {@code false} otherwise.
+     */
+    static boolean isBusy(String name) {
+        return TRANSFERS.stream().anyMatch(transfer -> transfer.name.equals(name));
+    }
+
+    /**
+     * This method is responsible for starting an export
+     * which writes each item to a herd file.
+     *
+     * @param source The command source that started the export.
+     *
+     * @param name The name of the herd.
+     *
+     * @param items The items to export, turned into entities one at a time.
+     *
+     * @param saver Turns an item into the NBT of an entity, {@code null} if the item no longer exists.
+     *
+     * @throws IOException If the herd file could not be created.
+     */
+    static <T> void startExport(CommandSourceStack source, String name, Iterator<T> items, Function<T, CompoundTag> saver) throws IOException {
+        TRANSFERS.add(new Export<>(source, name, HerdFile.write(getHerdPath(source.getServer(), name)), items, saver));
+    }
+
+    /**
+     * This method is responsible for starting an import
+     * which releases every entity in a herd file around
+     * a position, the same way a lasso releases them.
+     *
+     * @param source The command source that started the import.
+     *
+     * @param name The name of the herd.
+     *
+     * @param level The level to release the entities in.
+     *
+     * @param position The position to release the entities around.
+     *
+     * @param config The config snapshot the import was started with.
+     *
+     * @throws IOException If the herd file could not be opened.
+     */
+    static void startWorldImport(CommandSourceStack source, String name, ServerLevel level, BlockPos position, ConfigSnapshot config) throws IOException {
+        HerdFile.Reader reader = HerdFile.read(getHerdPath(source.getServer(), name));
+
+        // The spots are found once, checking the blocks for every entity would cost more than releasing it.
+        List<BlockPos> releasePositions = EmeraldLassoItem.findReleasePositions(level, position, RELEASE_SPOTS);
+
+        UUID actorId = source.getEntity() == null ? null : source.getEntity().getUUID();
+
+        TRANSFERS.add(new Import(source, name, reader, new Import.Sink() {
+            private int released;
+
+            @Override
+            public boolean accept(CompoundTag entityTag) {
+                assignFreshUuids(entityTag, level.getRandom());
+
+                return EmeraldLassoItem.releaseEntity(level, actorId, entityTag, releasePositions.get(released++ % releasePositions.size()), config);
+            }
+
+            @Override
+            public void finish() {
+            }
+        }));
+    }
+
+    /**
+     * This method is responsible for starting an import
+     * which stores every entity in a herd file in new
+     * lassos given to a player.
+     *
+     * @param source The command source that started the import.
+     *
+     * @param name The name of the herd.
+     *
+     * @param player The player to give the lassos to.
+     *
+     * @param config The config snapshot the import was started with.
+     *
+     * @throws IOException If the herd file could not be opened.
+     */
+    static void startLassoImport(CommandSourceStack source, String name, ServerPlayer player, ConfigSnapshot config) throws IOException {
+        HerdFile.Reader reader = HerdFile.read(getHerdPath(source.getServer(), name));
+
+        TRANSFERS.add(new Import(source, name, reader, new Import.Sink() {
+            private ItemStack lasso = new ItemStack(ModItems.EMERALD_LASSO.get());
+
+            @Override
+            public boolean accept(CompoundTag entityTag) {
+                ServerLevel level = player.getLevel();
+
+                assignFreshUuids(entityTag, level.getRandom());
+
+                if(EmeraldLassoItem.insertEntity(level, lasso, entityTag, config)) {
+                    return true;
+                }
+
+                // An entity that does not fit in an empty lasso never will.
+                if(EmeraldLassoItem.getStoredEntries(lasso).isEmpty()) {
+                    return false;
+                }
+
+                give(lasso);
+
+                lasso = new ItemStack(ModItems.EMERALD_LASSO.get());
+
+                return EmeraldLassoItem.insertEntity(level, lasso, entityTag, config);
+            }
+
+            @Override
+            public void finish() {
+                if(!EmeraldLassoItem.getStoredEntries(lasso).isEmpty()) {
+                    give(lasso);
+                }
+            }
+
+            private void give(ItemStack itemStack) {
+                if(player.isRemoved() || !player.getInventory().add(itemStack)) {
+                    player.drop(itemStack, false);
+                }
+            }
+        }));
+    }
+
+    /**
+     * This method is responsible for giving an imported
+     * entity and everything riding it new UUIDs. Exports
+     * leave the originals where they are, so importing a
+     * herd into the server it came from, or importing it
+     * twice, would otherwise clash with entities that
+     * already exist and the level would refuse them.
+     *
+     * @param entityTag The saved NBT of the entity. Modified in place.
+     *
+     * @param random The random source to make the UUIDs with.
+     */
+    private static void assignFreshUuids(CompoundTag entityTag, RandomSource random) {
+        entityTag.putUUID(NBTIdentifiers.UUID, Mth.createInsecureUUID(random));
+
+        ListTag passengerList = entityTag.getList(NBTIdentifiers.PASSENGERS, Tag.TAG_COMPOUND);
+
+        for(int i = 0; i < passengerList.size(); i++) {
+            assignFreshUuids(passengerList.getCompound(i), random);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if(event.phase != TickEvent.Phase.END || TRANSFERS.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+
+        Iterator<Transfer> iterator = TRANSFERS.iterator();
+
+        while(iterator.hasNext()) {
+            Transfer transfer = iterator.next();
+
+            if(transfer.run(deadline)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Transfers which have not finished are stopped, an
+     * unfinished export leaves no file behind.
+     */
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        for(Transfer transfer : TRANSFERS) {
+            LOGGER.warn("The herd transfer {} was stopped by the server shutting down after {} entities", transfer.name, transfer.getProcessed());
+
+            transfer.close();
+        }
+
+        TRANSFERS.clear();
+    }
+
+    /**
+     * An inner class for holding a single running transfer.
+     */
+    private abstract static class Transfer {
+
+        private final CommandSourceStack source;
+
+        private final String name;
+
+        private final String translationKey;
+
+        private int ticks;
+
+        private Transfer(CommandSourceStack source, String name, String translationKey) {
+            this.source = source;
+            this.name = name;
+            this.translationKey = translationKey;
+        }
+
+        /**
+         * This method is responsible for moving the
+         * transfer on until it is done or out of time.
+         * At least one entity is handled every tick, so
+         * every transfer always makes progress.
+         *
+         * @param deadline The System.nanoTime() the tick's budget runs out at.
+         *
+         * @return {@code true} if the transfer is over {@code false} if it has more to do.
+         */
+        private boolean run(long deadline) {
+            try {
+                do {
+                    if(!step()) {
+                        finish();
+
+                        source.sendSuccess(Component.translatable(translationKey + ".done", getProcessed(), name, getSkipped()), true);
+
+                        return true;
+                    }
+                } while(System.nanoTime() < deadline);
+            } catch(IOException exception) {
+                LOGGER.error("The herd transfer {} failed after {} entities", name, getProcessed(), exception);
+
+                close();
+
+                source.sendFailure(Component.translatable(translationKey + ".failed", name, getProcessed()));
+
+                return true;
+            }
+
+            if(++ticks % PROGRESS_INTERVAL_TICKS == 0) {
+                source.sendSuccess(Component.translatable(translationKey + ".progress", getProcessed(), name), false);
+            }
+
+            return false;
+        }
+
+        /**
+         * This method is responsible for handling the next entity.
+         *
+         * @return {@code true} if an entity was handled {@code false} if there are none left.
+         *
+         * @throws IOException If the herd file could not be read or written.
+         */
+        abstract boolean step() throws IOException;
+
+        abstract void finish() throws IOException;
+
+        abstract void close();
+
+        abstract int getProcessed();
+
+        abstract int getSkipped();
+    }
+
+    /**
+     * An inner class for holding a running export.
+     */
+    private static class Export<T> extends Transfer {
+
+        private final HerdFile.Writer writer;
+
+        private final Iterator<T> items;
+
+        private final Function<T, CompoundTag> saver;
+
+        private int skipped;
+
+        private Export(CommandSourceStack source, String name, HerdFile.Writer writer, Iterator<T> items, Function<T, CompoundTag> saver) {
+            super(source, name, "emeraldlasso.commands.herd.export");
+            this.writer = writer;
+            this.items = items;
+            this.saver = saver;
+        }
+
+        @Override
+        boolean step() throws IOException {
+            if(!items.hasNext()) {
+                return false;
+            }
+
+            CompoundTag entityTag = saver.apply(items.next());
+
+            if(entityTag == null) {
+                skipped++;
+            } else {
+                writer.write(entityTag);
+            }
+
+            return true;
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.finish();
+        }
+
+        @Override
+        void close() {
+            try {
+                writer.close();
+            } catch(IOException exception) {
+                LOGGER.error("An unfinished herd file could not be removed", exception);
+            }
+        }
+
+        @Override
+        int getProcessed() {
+            return writer.getWritten();
+        }
+
+        @Override
+        int getSkipped() {
+            return skipped;
+        }
+    }
+
+    /**
+     * An inner class for holding a running import.
+     */
+    private static class Import extends Transfer {
+
+        private final HerdFile.Reader reader;
+
+        private final Sink sink;
+
+        private int imported;
+
+        private int skipped;
+
+        private Import(CommandSourceStack source, String name, HerdFile.Reader reader, Sink sink) {
+            super(source, name, "emeraldlasso.commands.herd.import");
+            this.reader = reader;
+            this.sink = sink;
+        }
+
+        @Override
+        boolean step() throws IOException {
+            CompoundTag entityTag = reader.next();
+
+            if(entityTag == null) {
+                return false;
+            }
+
+            if(sink.accept(entityTag)) {
+                imported++;
+            } else {
+                skipped++;
+            }
+
+            return true;
+        }
+
+        @Override
+        void finish() {
+            close();
+        }
+
+        /**
+         * Whatever was already imported is kept, so the lassos filled so far are still handed out.
+         */
+        @Override
+        void close() {
+            sink.finish();
+
+            try {
+                reader.close();
+            } catch(IOException exception) {
+                LOGGER.error("A herd file could not be closed", exception);
+            }
+        }
+
+        @Override
+        int getProcessed() {
+            return imported;
+        }
+
+        @Override
+        int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * An interface for where imported entities go.
+         */
+        private interface Sink {
+            /**
+             * @return {@code true} if the entity was imported {@code false} if it had to be skipped.
+             */
+            boolean accept(CompoundTag entityTag);
+
+            void finish();
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier vanilla uses for the UUID of an entity.
+         */
+        public static final String UUID = "UUID";
+
+        /**
+         * The key identifier vanilla uses for the entities riding an entity.
+         */
+        public static final String PASSENGERS = "Passengers";
+    }
+
+}
@@ -0,0 +1,555 @@
+package com.empressvalla.emeraldlasso.command;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.audit.AuditLog;
+import com.empressvalla.emeraldlasso.block.advanced.StasisPenBlockEntity;
+import com.empressvalla.emeraldlasso.block.advanced.StasisPenQuery;
+import com.empressvalla.emeraldlasso.block.advanced.StasisPenStore;
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.item.advanced.EmeraldLassoItem;
+import com.empressvalla.emeraldlasso.metrics.LassoMetrics;
+import com.empressvalla.emeraldlasso.metrics.OperationTimer;
+import com.empressvalla.emeraldlasso.metrics.RejectReason;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import com.empressvalla.emeraldlasso.storage.PayloadStore;
+import com.empressvalla.emeraldlasso.storage.PayloadUpgrader;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import it.unimi.dsi.fastutil.ints.IntList;
+import com.mojang.logging.LogUtils;
+import net.minecraft.Util;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * This class is responsible for registering the
+ * /emeraldlasso command and its sub commands.
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public class ModCommands {
+
+    /**
+     * The permission level needed to use the command, the same as most vanilla admin commands.
+     */
+    private static final int PERMISSION_LEVEL = 2;
+
+    /**
+     * The most audit records shown by a single search.
+     */
+    private static final int AUDIT_SEARCH_LIMIT = 20;
+
+    /**
+     * The most stasis pen entities listed by a single command.
+     */
+    private static final int PEN_LIST_LIMIT = 10;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(EmeraldLasso.MOD_ID)
+                                    .requires(source -> source.hasPermission(PERMISSION_LEVEL))
+                                    .then(Commands.literal("stats")
+                                                  .executes(ModCommands::showStats)
+                                                  .then(Commands.literal("reset")
+                                                                .executes(ModCommands::resetStats)))
+                                    .then(Commands.literal("audit")
+                                                  .then(Commands.literal("search")
+                                                                .then(Commands.argument("query", StringArgumentType.greedyString())
+                                                                              .executes(ModCommands::searchAudit))))
+                                    .then(Commands.literal("pen")
+                                                  .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                                                .then(Commands.literal("list")
+                                                                              .executes(context -> listPen(context, ""))
+                                                                              .then(Commands.argument("filter", StringArgumentType.greedyString())
+                                                                                            .executes(context -> listPen(context, StringArgumentType.getString(context, "filter")))))
+                                                                .then(Commands.literal("release")
+                                                                              .then(Commands.argument("count", IntegerArgumentType.integer(1))
+                                                                                            .executes(context -> releaseFromPen(context, ""))
+                                                                                            .then(Commands.argument("filter", StringArgumentType.greedyString())
+                                                                                                          .executes(context -> releaseFromPen(context, StringArgumentType.getString(context, "filter"))))))))
+                                    .then(Commands.literal("herd")
+                                                  .then(Commands.literal("export")
+                                                                .then(Commands.argument("name", StringArgumentType.word())
+                                                                              .then(Commands.literal("lassos")
+                                                                                            .then(Commands.argument("targets", EntityArgument.players())
+                                                                                                          .executes(ModCommands::exportLassos)))
+                                                                              .then(Commands.literal("area")
+                                                                                            .then(Commands.argument("from", BlockPosArgument.blockPos())
+                                                                                                          .then(Commands.argument("to", BlockPosArgument.blockPos())
+                                                                                                                        .executes(ModCommands::exportArea))))))
+                                                  .then(Commands.literal("import")
+                                                                .then(Commands.argument("name", StringArgumentType.word())
+                                                                              .then(Commands.literal("world")
+                                                                                            .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                                                                                          .executes(ModCommands::importToWorld)))
+                                                                              .then(Commands.literal("lassos")
+                                                                                            .then(Commands.argument("target", EntityArgument.player())
+                                                                                                          .executes(ModCommands::importToLassos))))))));
+    }
+
+    /**
+     * This method is responsible for showing the
+     * counts and timings kept by LassoMetrics.
+     *
+     * @param context The command context.
+     *
+     * @return The number of entities captured.
+     */
+    private static int showStats(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+
+        long captures = LassoMetrics.getCaptures();
+
+        long averagePayloadBytes = captures == 0 ? 0 : LassoMetrics.getPayloadBytes() / captures;
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.stats.header"), false);
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.stats.actions",
+                                                  captures, LassoMetrics.getReleases(), LassoMetrics.getFailedReleases()), false);
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.stats.rejections", describeRejections()), false);
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.stats.payload",
+                                                  LassoMetrics.getPayloadBytes(), averagePayloadBytes), false);
+
+        source.sendSuccess(describeTimer("emeraldlasso.commands.stats.save", LassoMetrics.SAVE_TIMER), false);
+
+        source.sendSuccess(describeTimer("emeraldlasso.commands.stats.load", LassoMetrics.LOAD_TIMER), false);
+
+        if(AuditLog.isEnabled()) {
+            source.sendSuccess(Component.translatable("emeraldlasso.commands.stats.audit", AuditLog.getDropped()), false);
+        }
+
+        return (int) Math.min(captures, Integer.MAX_VALUE);
+    }
+
+    private static int resetStats(CommandContext<CommandSourceStack> context) {
+        LassoMetrics.reset();
+
+        context.getSource().sendSuccess(Component.translatable("emeraldlasso.commands.stats.reset"), true);
+
+        return 1;
+    }
+
+    /**
+     * This method is responsible for searching the audit
+     * log for the most recent records matching a player
+     * name, UUID, entity type or anything else in a record.
+     *
+     * The log is read on an IO thread, and the results are
+     * sent back from the server thread once it is done.
+     *
+     * @param context The command context.
+     *
+     * @return Always 1, the search finishes after the command returns.
+     */
+    private static int searchAudit(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+
+        MinecraftServer server = source.getServer();
+
+        String query = StringArgumentType.getString(context, "query");
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.audit.searching", query), false);
+
+        Util.ioPool().execute(() -> {
+            List<String> terms = new ArrayList<>(2);
+
+            terms.add(query);
+
+            // The log records players by UUID, so a player name is also searched for by its UUID.
+            server.getProfileCache().get(query).ifPresent(profile -> terms.add(profile.getId().toString()));
+
+            try {
+                List<String> records = AuditLog.search(terms, AUDIT_SEARCH_LIMIT);
+
+                server.execute(() -> showAuditRecords(source, query, records));
+            } catch(IOException exception) {
+                LOGGER.error("The emerald lasso audit log could not be searched", exception);
+
+                server.execute(() -> source.sendFailure(Component.translatable("emeraldlasso.commands.audit.failed")));
+            }
+        });
+
+        return 1;
+    }
+
+    private static void showAuditRecords(CommandSourceStack source, String query, List<String> records) {
+        if(records.isEmpty()) {
+            source.sendSuccess(Component.translatable("emeraldlasso.commands.audit.none", query), false);
+
+            return;
+        }
+
+        for(String record : records) {
+            source.sendSuccess(Component.literal(record), false);
+        }
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.audit.done", records.size()), false);
+    }
+
+    /**
+     * This method is responsible for listing the entities
+     * in a stasis pen which match a filter, found through
+     * the pen's index.
+     *
+     * @param context The command context.
+     *
+     * @param filter The filter typed into the command.
+     *
+     * @return The number of matching entities.
+     *
+     * @throws CommandSyntaxException If the position is not loaded.
+     */
+    private static int listPen(CommandContext<CommandSourceStack> context, String filter) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+
+        StasisPenBlockEntity pen = getPen(context);
+
+        StasisPenQuery query = parseQuery(source, filter);
+
+        if(pen == null || query == null) {
+            return 0;
+        }
+
+        StasisPenStore store = pen.getStore();
+
+        int matching = store.count(query);
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.pen.list", matching, store.size()), false);
+
+        IntList ids = store.find(query, PEN_LIST_LIMIT);
+
+        for(int i = 0; i < ids.size(); i++) {
+            ContentsHeader.Entry entry = store.getEntry(ids.getInt(i));
+
+            MutableComponent line = Component.literal("#" + ids.getInt(i) + " ").append(entry.getTypeDescription());
+
+            if(!entry.name().isEmpty()) {
+                line.append(" (" + entry.name() + ")");
+            }
+
+            source.sendSuccess(line, false);
+        }
+
+        if(matching > ids.size()) {
+            source.sendSuccess(Component.translatable("emeraldlasso.commands.pen.more", matching - ids.size()), false);
+        }
+
+        return matching;
+    }
+
+    private static int releaseFromPen(CommandContext<CommandSourceStack> context, String filter) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+
+        StasisPenBlockEntity pen = getPen(context);
+
+        StasisPenQuery query = parseQuery(source, filter);
+
+        if(pen == null || query == null) {
+            return 0;
+        }
+
+        UUID actorId = source.getEntity() == null ? null : source.getEntity().getUUID();
+
+        int released = pen.release(source.getLevel(), actorId, query, IntegerArgumentType.getInteger(context, "count"), ConfigManager.getSnapshot());
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.pen.released", released), true);
+
+        return released;
+    }
+
+    /**
+     * This method is responsible for finding the stasis
+     * pen a command points at.
+     *
+     * @param context The command context.
+     *
+     * @return The pen or {@code null} if there is no pen at the position.
+     *
+     * @throws CommandSyntaxException If the position is not loaded.
+     */
+    @Nullable
+    private static StasisPenBlockEntity getPen(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+
+        BlockPos position = BlockPosArgument.getLoadedBlockPos(context, "pos");
+
+        if(!(source.getLevel().getBlockEntity(position) instanceof StasisPenBlockEntity pen)) {
+            source.sendFailure(Component.translatable("emeraldlasso.commands.pen.missing", position.getX(), position.getY(), position.getZ()));
+
+            return null;
+        }
+
+        return pen;
+    }
+
+    @Nullable
+    private static StasisPenQuery parseQuery(CommandSourceStack source, String filter) {
+        StasisPenQuery query = StasisPenQuery.parse(filter);
+
+        if(query == null) {
+            source.sendFailure(Component.translatable("emeraldlasso.commands.pen.bad_filter", filter));
+        }
+
+        return query;
+    }
+
+    /**
+     * This method is responsible for exporting the
+     * entities in every lasso carried by the target
+     * players to a herd file. The lassos are left as
+     * they are.
+     *
+     * @param context The command context.
+     *
+     * @return The number of entities that will be exported.
+     *
+     * @throws CommandSyntaxException If the targets could not be found.
+     */
+    private static int exportLassos(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        List<ExportedEntry> entries = new ArrayList<>();
+
+        for(ServerPlayer player : EntityArgument.getPlayers(context, "targets")) {
+            Inventory inventory = player.getInventory();
+
+            for(int slot = 0; slot < inventory.getContainerSize(); slot++) {
+                ItemStack itemStack = inventory.getItem(slot);
+
+                if(itemStack.getItem() instanceof EmeraldLassoItem) {
+                    for(CompoundTag entry : EmeraldLassoItem.getStoredEntries(itemStack)) {
+                        entries.add(new ExportedEntry(player.getLevel(), entry));
+                    }
+                }
+            }
+        }
+
+        // Only the entries are collected up front, each entity is decoded as it is written.
+        return startExport(context, entries.size(), entries.iterator(), exported -> PayloadStore.peek(exported.level(), exported.entry()));
+    }
+
+    /**
+     * This method is responsible for exporting every
+     * living entity in an area to a herd file. The
+     * entities are left where they are.
+     *
+     * @param context The command context.
+     *
+     * @return The number of entities that will be exported.
+     *
+     * @throws CommandSyntaxException If the area is not loaded.
+     */
+    private static int exportArea(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        ServerLevel level = context.getSource().getLevel();
+
+        AABB area = AABB.of(BoundingBox.fromCorners(BlockPosArgument.getLoadedBlockPos(context, "from"), BlockPosArgument.getLoadedBlockPos(context, "to")));
+
+        List<UUID> entityIds = level.getEntitiesOfClass(LivingEntity.class, area, entity -> !(entity instanceof Player))
+                                    .stream()
+                                    .map(Entity::getUUID)
+                                    .toList();
+
+        // The entities are saved as they are written, so ones that have since gone are skipped.
+        return startExport(context, entityIds.size(), entityIds.iterator(), entityId -> {
+            Entity entity = level.getEntity(entityId);
+
+            CompoundTag entityTag = new CompoundTag();
+
+            // Passengers are saved along with what they are riding.
+            if(entity == null || entity.isRemoved() || !entity.save(entityTag)) {
+                return null;
+            }
+
+            PayloadUpgrader.stamp(entityTag);
+
+            return entityTag;
+        });
+    }
+
+    private static <T> int startExport(CommandContext<CommandSourceStack> context, int count, Iterator<T> items, Function<T, CompoundTag> saver) {
+        CommandSourceStack source = context.getSource();
+
+        String name = StringArgumentType.getString(context, "name");
+
+        if(HerdTransfer.isBusy(name)) {
+            source.sendFailure(Component.translatable("emeraldlasso.commands.herd.busy", name));
+
+            return 0;
+        }
+
+        try {
+            HerdTransfer.startExport(source, name, items, saver);
+        } catch(IOException exception) {
+            LOGGER.error("The herd file {} could not be created", name, exception);
+
+            source.sendFailure(Component.translatable("emeraldlasso.commands.herd.open_failed", name, exception.getMessage()));
+
+            return 0;
+        }
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.herd.export.started", count, name), true);
+
+        return count;
+    }
+
+    /**
+     * This method is responsible for releasing every
+     * entity in a herd file around a position, through
+     * the same path as a lasso release.
+     *
+     * @param context The command context.
+     *
+     * @return 1 if the import was started, the entities are released after the command returns.
+     *
+     * @throws CommandSyntaxException If the position is not loaded.
+     */
+    private static int importToWorld(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+
+        BlockPos position = BlockPosArgument.getLoadedBlockPos(context, "pos");
+
+        return startImport(context, name -> HerdTransfer.startWorldImport(source, name, source.getLevel(), position, ConfigManager.getSnapshot()));
+    }
+
+    /**
+     * This method is responsible for storing every entity
+     * in a herd file in new lassos given to a player.
+     *
+     * @param context The command context.
+     *
+     * @return 1 if the import was started, the lassos are filled after the command returns.
+     *
+     * @throws CommandSyntaxException If the player could not be found.
+     */
+    private static int importToLassos(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+
+        ServerPlayer player = EntityArgument.getPlayer(context, "target");
+
+        return startImport(context, name -> HerdTransfer.startLassoImport(source, name, player, ConfigManager.getSnapshot()));
+    }
+
+    private static int startImport(CommandContext<CommandSourceStack> context, ImportStarter starter) {
+        CommandSourceStack source = context.getSource();
+
+        String name = StringArgumentType.getString(context, "name");
+
+        if(HerdTransfer.isBusy(name)) {
+            source.sendFailure(Component.translatable("emeraldlasso.commands.herd.busy", name));
+
+            return 0;
+        }
+
+        if(!Files.isRegularFile(HerdTransfer.getHerdPath(source.getServer(), name))) {
+            source.sendFailure(Component.translatable("emeraldlasso.commands.herd.missing", name));
+
+            return 0;
+        }
+
+        try {
+            starter.start(name);
+        } catch(IOException exception) {
+            LOGGER.error("The herd file {} could not be opened", name, exception);
+
+            source.sendFailure(Component.translatable("emeraldlasso.commands.herd.open_failed", name, exception.getMessage()));
+
+            return 0;
+        }
+
+        source.sendSuccess(Component.translatable("emeraldlasso.commands.herd.import.started", name), true);
+
+        return 1;
+    }
+
+    /**
+     * A record holding an entry of a lasso being exported.
+     *
+     * @param level The level the lasso's holder is in, used to find entries kept in the vault.
+     *
+     * @param entry The entry stored in the lasso.
+     */
+    private record ExportedEntry(ServerLevel level, CompoundTag entry) {
+    }
+
+    /**
+     * An interface for starting an import once the herd file has been checked.
+     */
+    @FunctionalInterface
+    private interface ImportStarter {
+        void start(String name) throws IOException;
+    }
+
+    /**
+     * This method is responsible for listing every
+     * reason an entity has been refused for, along with
+     * how many times. Reasons which never happened are
+     * left out.
+     *
+     * @return The list of reasons and counts.
+     */
+    private static Component describeRejections() {
+        MutableComponent rejections = Component.empty();
+
+        for(RejectReason reason : RejectReason.values()) {
+            long count = LassoMetrics.getRejections(reason);
+
+            if(count == 0) {
+                continue;
+            }
+
+            if(!rejections.getSiblings().isEmpty()) {
+                rejections.append(", ");
+            }
+
+            rejections.append(Component.translatable("emeraldlasso.reasons." + reason.getSerializedName()))
+                      .append(": " + count);
+        }
+
+        return rejections.getSiblings().isEmpty() ? Component.translatable("emeraldlasso.commands.stats.none") : rejections;
+    }
+
+    private static Component describeTimer(String translationKey, OperationTimer timer) {
+        return Component.translatable(translationKey,
+                                      timer.getCount(),
+                                      String.format("%.3f", timer.getAverageMillis()),
+                                      String.format("%.3f", timer.getMaxMillis()));
+    }
+
+}
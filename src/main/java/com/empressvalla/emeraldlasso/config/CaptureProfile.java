@@ -0,0 +1,243 @@
+package com.empressvalla.emeraldlasso.config;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeSupplier;
+import net.minecraft.world.entity.ai.attributes.DefaultAttributes;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is responsible for holding an immutable
+ * view of the lean capture profile, which decides which
+ * parts of a captured entity's NBT are left out because
+ * they are transient or rebuilt when the entity loads.
+ *
+ * Besides plain top level keys, two special keys are understood.
+ * DefaultAttributes removes the attributes that are still at the
+ * default value for the entity type, and EmptyBrain removes the
+ * brain when it has no memories. Both are rebuilt exactly as they
+ * were when the entity is loaded again.
+ *
+ * Per type rules are applied in order after the shared keys, so a
+ * later rule wins over an earlier one.
+ */
+public final class CaptureProfile {
+
+    /**
+     * The special key which removes attributes that are at their default value.
+     */
+    public static final String DEFAULT_ATTRIBUTES = "DefaultAttributes";
+
+    /**
+     * The special key which removes a brain with no memories.
+     */
+    public static final String EMPTY_BRAIN = "EmptyBrain";
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /**
+     * Responsible for storing the keys removed from every entity type.
+     */
+    private final Set<String> sharedKeys;
+
+    /**
+     * Responsible for storing the per type rules in the order they were configured.
+     */
+    private final List<Rule> rules;
+
+    /**
+     * Responsible for storing the config generation this profile was built from.
+     *
+     * @see ConfigManager#getCaptureProfile()
+     */
+    private final int generation;
+
+    /**
+     * Responsible for storing the keys worked out for each entity type, so the rules
+     * are only matched once per type.
+     */
+    private final Map<EntityType<?>, Set<String>> resolvedKeys = new ConcurrentHashMap<>();
+
+    private CaptureProfile(Set<String> sharedKeys, List<Rule> rules, int generation) {
+        this.sharedKeys = sharedKeys;
+        this.rules = rules;
+        this.generation = generation;
+    }
+
+    /**
+     * This method is responsible for removing the keys
+     * the profile strips for the given entity type from
+     * its saved NBT.
+     *
+     * @param entityTag The saved NBT of the entity. Modified in place.
+     *
+     * @param entityType The type of the entity.
+     */
+    public void apply(CompoundTag entityTag, EntityType<?> entityType) {
+        Set<String> keys = resolvedKeys.computeIfAbsent(entityType, this::resolve);
+
+        for(String key : keys) {
+            switch(key) {
+                case DEFAULT_ATTRIBUTES -> pruneDefaultAttributes(entityTag, entityType);
+                case EMPTY_BRAIN -> pruneEmptyBrain(entityTag);
+                default -> entityTag.remove(key);
+            }
+        }
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    private Set<String> resolve(EntityType<?> entityType) {
+        Set<String> keys = new HashSet<>(sharedKeys);
+
+        for(Rule rule : rules) {
+            if(rule.types().contains(entityType)) {
+                keys.addAll(rule.stripped());
+                keys.removeAll(rule.kept());
+            }
+        }
+
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Attributes which are missing from the NBT keep the value the
+     * entity was constructed with, which is the default for its type.
+     * Only attributes at that default with no modifiers are removed,
+     * so randomised stats such as horse speed are always kept.
+     */
+    @SuppressWarnings("unchecked")
+    private static void pruneDefaultAttributes(CompoundTag entityTag, EntityType<?> entityType) {
+        if(!entityTag.contains(NBTIdentifiers.ATTRIBUTES, Tag.TAG_LIST) || !DefaultAttributes.hasSupplier(entityType)) {
+            return;
+        }
+
+        AttributeSupplier defaults = DefaultAttributes.getSupplier((EntityType<? extends LivingEntity>) entityType);
+
+        ListTag attributeList = entityTag.getList(NBTIdentifiers.ATTRIBUTES, Tag.TAG_COMPOUND);
+
+        attributeList.removeIf(tag -> {
+            CompoundTag attributeTag = (CompoundTag) tag;
+
+            if(!attributeTag.getList(NBTIdentifiers.MODIFIERS, Tag.TAG_COMPOUND).isEmpty()) {
+                return false;
+            }
+
+            ResourceLocation attributeLocation = ResourceLocation.tryParse(attributeTag.getString(NBTIdentifiers.NAME));
+
+            Attribute attribute = attributeLocation == null ? null : BuiltInRegistries.ATTRIBUTE.get(attributeLocation);
+
+            return attribute != null
+                   && defaults.hasAttribute(attribute)
+                   && defaults.getBaseValue(attribute) == attributeTag.getDouble(NBTIdentifiers.BASE);
+        });
+
+        if(attributeList.isEmpty()) {
+            entityTag.remove(NBTIdentifiers.ATTRIBUTES);
+        }
+    }
+
+    /**
+     * A missing brain is made fresh when the entity loads,
+     * which is the same as a brain with no memories.
+     */
+    private static void pruneEmptyBrain(CompoundTag entityTag) {
+        CompoundTag brainTag = entityTag.getCompound(NBTIdentifiers.BRAIN);
+
+        if(entityTag.contains(NBTIdentifiers.BRAIN, Tag.TAG_COMPOUND) && brainTag.getCompound(NBTIdentifiers.MEMORIES).isEmpty()) {
+            entityTag.remove(NBTIdentifiers.BRAIN);
+        }
+    }
+
+    /**
+     * This method is responsible for building a profile
+     * from the raw config entries.
+     *
+     * Each rule is an entity selector followed by keys to
+     * also strip (-Key) or to keep (+Key), separated by spaces.
+     * For example "minecraft:horse +Motion -ArmorItems". The
+     * selector uses the same patterns as the whitelist.
+     *
+     * @param sharedKeys The keys stripped from every entity type.
+     *
+     * @param ruleEntries The raw per type rules.
+     *
+     * @param generation The config generation the entries were read from.
+     *
+     * @return The built profile.
+     */
+    static CaptureProfile build(List<? extends String> sharedKeys, List<? extends String> ruleEntries, int generation) {
+        List<Rule> rules = new ArrayList<>();
+
+        for(String ruleEntry : ruleEntries) {
+            String[] parts = ruleEntry.trim().split("\\s+");
+
+            Set<String> stripped = new HashSet<>();
+
+            Set<String> kept = new HashSet<>();
+
+            for(int i = 1; i < parts.length; i++) {
+                String key = parts[i].substring(1);
+
+                if(parts[i].startsWith("-")) {
+                    stripped.add(key);
+                } else if(parts[i].startsWith("+")) {
+                    kept.add(key);
+                } else {
+                    LOGGER.error("The lean capture rule {} has a key {} without a + or -, please check the rule. Skipping Key", ruleEntry, parts[i]);
+                }
+            }
+
+            rules.add(new Rule(EntityWhitelist.build(List.of(parts[0]), generation), Set.copyOf(stripped), Set.copyOf(kept)));
+        }
+
+        return new CaptureProfile(Set.copyOf(sharedKeys), List.copyOf(rules), generation);
+    }
+
+    /**
+     * A record holding a single per type rule.
+     *
+     * @param types The entity types the rule applies to.
+     *
+     * @param stripped The keys the rule also strips.
+     *
+     * @param kept The keys the rule keeps even if they are stripped by default.
+     */
+    private record Rule(EntityWhitelist types, Set<String> stripped, Set<String> kept) {
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        public static final String ATTRIBUTES = "Attributes";
+
+        public static final String MODIFIERS = "Modifiers";
+
+        public static final String NAME = "Name";
+
+        public static final String BASE = "Base";
+
+        public static final String BRAIN = "Brain";
+
+        public static final String MEMORIES = "memories";
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.empressvalla.emeraldlasso.config;
+
+import com.empressvalla.emeraldlasso.metrics.RejectReason;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraftforge.common.Tags;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class is responsible for holding the capture
+ * rules compiled from the config into a short list of
+ * checks, ordered from cheapest to most expensive.
+ *
+ * Only the rules which are turned on are compiled in, and checking
+ * stops at the first rule an entity fails, so the collision check
+ * for entities stuck in a wall only runs for entities which passed
+ * every cheaper rule. The maximum payload size can only be checked
+ * once the entity has been saved, so it is checked when storing.
+ *
+ * @see ConfigManager#getCaptureRules()
+ */
+public final class CaptureRules {
+
+    /**
+     * The cost of checks which only read a field or a bit.
+     */
+    private static final int COST_FIELD = 0;
+
+    /**
+     * The cost of checks which look something up, such as a tag or the whitelist.
+     */
+    private static final int COST_LOOKUP = 1;
+
+    /**
+     * The cost of checks which test the entity against the blocks around it.
+     */
+    private static final int COST_COLLISION = 10;
+
+    /**
+     * Responsible for storing the compiled checks, cheapest first. This is never mutated after construction.
+     */
+    private final Check[] checks;
+
+    /**
+     * Responsible for storing the config generation these rules were built from.
+     */
+    private final int generation;
+
+    private CaptureRules(Check[] checks, int generation) {
+        this.checks = checks;
+        this.generation = generation;
+    }
+
+    /**
+     * This method is responsible for running the
+     * compiled checks against an entity.
+     *
+     * @param target The entity to check.
+     *
+     * @return The reason of the first check it failed or {@code null} if it can be stored.
+     */
+    @Nullable
+    public RejectReason test(Entity target) {
+        // Every check after the first can safely assume the target is a living entity.
+        for(Check check : checks) {
+            if(!check.rule().test(target)) {
+                return check.reason();
+            }
+        }
+
+        return null;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * This method is responsible for compiling the
+     * rules which are turned on in the config.
+     *
+     * @param config The config snapshot to compile.
+     *
+     * @param whitelist The whitelist to check types against.
+     *
+     * @param generation The config generation the rules were read from.
+     *
+     * @return The compiled rules.
+     */
+    static CaptureRules compile(ConfigSnapshot config, EntityWhitelist whitelist, int generation) {
+        List<Check> checks = new ArrayList<>();
+
+        if(!config.allEntitiesAllowed()) {
+            checks.add(new Check(COST_LOOKUP, RejectReason.WHITELIST, target -> whitelist.contains(target.getType())));
+        }
+
+        if(config.excludeBosses()) {
+            checks.add(new Check(COST_LOOKUP, RejectReason.BOSS, target -> !target.getType().is(Tags.EntityTypes.BOSSES)));
+        }
+
+        if(config.namedOnly()) {
+            checks.add(new Check(COST_FIELD, RejectReason.NOT_NAMED, Entity::hasCustomName));
+        }
+
+        if(config.babiesOnly()) {
+            checks.add(new Check(COST_FIELD, RejectReason.NOT_BABY, target -> ((LivingEntity) target).isBaby()));
+        }
+
+        if(config.entityHealthSystemEnabled()) {
+            double minEntityHealth = config.minEntityHealth();
+
+            checks.add(new Check(COST_FIELD, RejectReason.HEALTH, target -> ((LivingEntity) target).getHealth() <= minEntityHealth));
+        }
+
+        checks.add(new Check(COST_COLLISION, RejectReason.OBSTRUCTED, target -> !target.isInWall()));
+
+        // The sort is stable, so checks of the same cost keep the order above.
+        checks.sort(Comparator.comparingInt(Check::cost));
+
+        // Proving the target is a living entity always comes first, the other checks rely on it.
+        checks.add(0, new Check(COST_FIELD, RejectReason.INVALID, target -> target instanceof LivingEntity && target.isAlive()));
+
+        return new CaptureRules(checks.toArray(new Check[0]), generation);
+    }
+
+    /**
+     * A functional interface for a single compiled rule.
+     */
+    @FunctionalInterface
+    private interface Rule {
+        boolean test(Entity target);
+    }
+
+    /**
+     * A record holding a single compiled check.
+     *
+     * @param cost How expensive the check is compared to the others.
+     *
+     * @param reason The reason reported when an entity fails the check.
+     *
+     * @param rule The rule an entity must pass.
+     */
+    private record Check(int cost, RejectReason reason, Rule rule) {
+    }
+
+}
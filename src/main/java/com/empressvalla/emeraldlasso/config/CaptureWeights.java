@@ -0,0 +1,112 @@
+package com.empressvalla.emeraldlasso.config;
+
+import net.minecraft.world.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is responsible for holding an immutable
+ * view of the per type weights used by the byte budget,
+ * which make some entity types take up more or less of
+ * a lasso than their size alone.
+ *
+ * Weights are applied in order, so a later entry wins over an earlier
+ * one. Entity types no entry matches have a weight of 1.
+ */
+public final class CaptureWeights {
+
+    /**
+     * Responsible for storing the weight rules in the order they were configured.
+     */
+    private final List<Rule> rules;
+
+    /**
+     * Responsible for storing the config generation these weights were built from.
+     *
+     * @see ConfigManager#getCaptureWeights()
+     */
+    private final int generation;
+
+    /**
+     * Responsible for storing the weight worked out for each entity type, so the rules
+     * are only matched once per type.
+     */
+    private final Map<EntityType<?>, Double> resolvedWeights = new ConcurrentHashMap<>();
+
+    private CaptureWeights(List<Rule> rules, int generation) {
+        this.rules = rules;
+        this.generation = generation;
+    }
+
+    /**
+     * This method is responsible for working out how much
+     * of a lasso's byte budget an entity takes up.
+     *
+     * @param entityType The type of the entity.
+     *
+     * @param payloadBytes The serialized size of the stored entity.
+     *
+     * @return The weighted size in bytes, at least 1.
+     */
+    public int getCost(EntityType<?> entityType, int payloadBytes) {
+        double weight = resolvedWeights.computeIfAbsent(entityType, this::resolve);
+
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.ceil(payloadBytes * weight)));
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    private double resolve(EntityType<?> entityType) {
+        double weight = 1.0;
+
+        for(Rule rule : rules) {
+            if(rule.types().contains(entityType)) {
+                weight = rule.weight();
+            }
+        }
+
+        return weight;
+    }
+
+    /**
+     * This method is responsible for building the weights
+     * from the raw config entries.
+     *
+     * Each entry is an entity selector followed by its weight,
+     * separated by a space. For example "minecraft:villager 2.5".
+     * The selector uses the same patterns as the whitelist.
+     *
+     * @param entries The raw weight entries.
+     *
+     * @param generation The config generation the entries were read from.
+     *
+     * @return The built weights.
+     */
+    static CaptureWeights build(List<? extends String> entries, int generation) {
+        List<Rule> rules = new ArrayList<>(entries.size());
+
+        for(String entry : entries) {
+            String[] parts = entry.trim().split("\\s+");
+
+            rules.add(new Rule(EntityWhitelist.build(List.of(parts[0]), generation), Double.parseDouble(parts[1])));
+        }
+
+        return new CaptureWeights(List.copyOf(rules), generation);
+    }
+
+    /**
+     * A record holding a single weight rule.
+     *
+     * @param types The entity types the rule applies to.
+     *
+     * @param weight What the size of the matching entities is multiplied by.
+     */
+    private record Rule(EntityWhitelist types, double weight) {
+    }
+
+}
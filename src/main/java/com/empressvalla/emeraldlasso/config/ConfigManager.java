@@ -1,14 +1,16 @@
 package com.empressvalla.emeraldlasso.config;
 
-import com.mojang.logging.LogUtils;
-import net.minecraft.world.entity.EntityType;
+import com.empressvalla.emeraldlasso.EmeraldLasso;
 import net.minecraftforge.common.ForgeConfigSpec;
-import org.slf4j.Logger;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 /**
@@ -16,6 +18,7 @@ import java.util.function.Predicate;
  * access to the config values as
  * well as building the config file itself.
  */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
 public class ConfigManager {
 
     /**
@@ -67,9 +70,250 @@ public class ConfigManager {
 
     private static final ForgeConfigSpec.ConfigValue<List<? extends String>> MOD_ENTITY_WHITELIST;
 
+    /**
+     * Responsible for storing the config value which controls whether
+     * captured entities are kept in the server side vault, leaving
+     * only a small handle in the lasso itself.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> ENTITY_VAULT;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * in-game days an entity can sit in the vault without its lasso
+     * being seen before it is removed as an orphan.
+     *
+     * This will only be used if the ENTITY_VAULT is set to true.
+     *
+     * @see ConfigManager#ENTITY_VAULT
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> VAULT_ORPHAN_EXPIRY_DAYS;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * captured entities are stored as compressed binary NBT.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> COMPRESS_ENTITIES;
+
+    /**
+     * Responsible for storing the config value which controls the deflate
+     * level used when compressing captured entities.
+     *
+     * This will only be used if the COMPRESS_ENTITIES is set to true.
+     *
+     * @see ConfigManager#COMPRESS_ENTITIES
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> COMPRESSION_LEVEL;
+
+    /**
+     * Responsible for storing the config value which controls the radius
+     * around the clicked entity that is searched when sneak clicking.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Double> BATCH_CAPTURE_RADIUS;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * entities can be captured by a single sneak click.
+     *
+     * This will only be used if the BATCH_CAPTURE_RADIUS is above 0.
+     *
+     * @see ConfigManager#BATCH_CAPTURE_RADIUS
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> BATCH_CAPTURE_MAX;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * sneak right clicking a block releases every stored entity at once.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> BULK_RELEASE;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * released entities are queued and spawned over the following ticks
+     * instead of straight away.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> RELEASE_QUEUE;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * microseconds each level can spend spawning queued entities per tick.
+     *
+     * This will only be used if the RELEASE_QUEUE is set to true.
+     *
+     * @see ConfigManager#RELEASE_QUEUE
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> RELEASE_QUEUE_BUDGET_MICROS;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * transient and regenerated NBT is stripped from captured entities.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> LEAN_CAPTURE;
+
+    /**
+     * Responsible for storing the config value which controls which
+     * NBT keys are stripped from every captured entity.
+     *
+     * This will only be used if the LEAN_CAPTURE is set to true.
+     *
+     * @see ConfigManager#LEAN_CAPTURE
+     */
+    private static final ForgeConfigSpec.ConfigValue<List<? extends String>> LEAN_CAPTURE_STRIP;
+
+    /**
+     * Responsible for storing the config value which holds the per
+     * entity type rules for the lean capture profile.
+     *
+     * This will only be used if the LEAN_CAPTURE is set to true.
+     *
+     * @see ConfigManager#LEAN_CAPTURE
+     */
+    private static final ForgeConfigSpec.ConfigValue<List<? extends String>> LEAN_CAPTURE_RULES;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * capture or release attempts each player can make per second.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Double> ACTION_RATE_PER_SECOND;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * attempts a player can make in a quick burst before being limited.
+     *
+     * This will only be used if the ACTION_RATE_PER_SECOND is above 0.
+     *
+     * @see ConfigManager#ACTION_RATE_PER_SECOND
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> ACTION_BURST;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * entities in the forge:bosses tag can never be stored.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> EXCLUDE_BOSSES;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * only entities with a custom name can be stored.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> CAPTURE_NAMED_ONLY;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * only baby entities can be stored.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> CAPTURE_BABIES_ONLY;
+
+    /**
+     * Responsible for storing the config value which controls the largest
+     * payload in bytes a single captured entity can take up.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> MAX_PAYLOAD_BYTES;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * the client hides a captured entity before the server confirms it.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> CAPTURE_PREDICTION;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * captures and releases are written to the audit log.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> AUDIT_LOG;
+
+    /**
+     * Responsible for storing the config value which controls how
+     * many audit log files are kept before the oldest is deleted.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> AUDIT_LOG_MAX_FILES;
+
+    /**
+     * Responsible for storing the config value which controls the byte
+     * budget of each lasso, used instead of a fixed number of entities.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> CAPACITY_BYTE_BUDGET;
+
+    /**
+     * Responsible for storing the config value which controls the
+     * per type weights applied to sizes counted against the byte budget.
+     */
+    private static final ForgeConfigSpec.ConfigValue<List<? extends String>> CAPACITY_TYPE_WEIGHTS;
+
+    /**
+     * Responsible for storing the config value which controls whether
+     * dispensers can capture and release entities with a lasso.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Boolean> DISPENSER_LASSO;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * ticks a dispenser must wait between uses of a lasso.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> DISPENSER_COOLDOWN_TICKS;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * lasso uses all the dispensers in a chunk can make per second.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> DISPENSER_CHUNK_ACTIONS_PER_SECOND;
+
+    /**
+     * Responsible for storing the config value which controls how many
+     * entities a single stasis pen can hold.
+     */
+    private static final ForgeConfigSpec.ConfigValue<Integer> STASIS_PEN_CAPACITY;
+
     private static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
 
-    private static final Logger LOGGER = LogUtils.getLogger();
+    /**
+     * Responsible for storing the snapshot of the config values. Replaced whenever the
+     * config is loaded or reloaded, until then it holds the default values.
+     *
+     * @see ConfigManager#getSnapshot()
+     */
+    private static volatile ConfigSnapshot snapshot;
+
+    /**
+     * Responsible for storing the most recently built entity whitelist.
+     *
+     * @see ConfigManager#getEntityWhitelist()
+     */
+    private static volatile EntityWhitelist entityWhitelist;
+
+    /**
+     * Responsible for storing the most recently built lean capture profile.
+     *
+     * @see ConfigManager#getCaptureProfile()
+     */
+    private static volatile CaptureProfile captureProfile;
+
+    /**
+     * Responsible for storing the most recently compiled capture rules.
+     *
+     * @see ConfigManager#getCaptureRules()
+     */
+    private static volatile CaptureRules captureRules;
+
+    /**
+     * Responsible for storing the weights built from CAPACITY_TYPE_WEIGHTS.
+     *
+     * @see ConfigManager#getCaptureWeights()
+     */
+    private static volatile CaptureWeights captureWeights;
+
+    /**
+     * Responsible for storing the generation of the whitelist, capture rules, capture profile and capture weights.
+     * This is bumped whenever the config or the entity tags change, which marks all of them as stale.
+     */
+    private static final AtomicInteger entityCacheGeneration = new AtomicInteger();
+
+    /**
+     * The default list of NBT keys stripped by the lean capture profile. These are
+     * either transient or rebuilt exactly the same when the entity is loaded.
+     */
+    private static final List<String> DEFAULT_LEAN_CAPTURE_STRIP = List.of("Motion", "FallDistance", "Fire", "PortalCooldown", "HurtTime",
+                                                                           "HurtByTimestamp", "DeathTime", "FallFlying", "OnGround",
+                                                                           CaptureProfile.DEFAULT_ATTRIBUTES, CaptureProfile.EMPTY_BRAIN);
 
     /**
      * The default list of entities that will be added to the config file when first generated.
@@ -96,60 +340,251 @@ public class ConfigManager {
         MIN_ENTITY_HEALTH = BUILDER.comment("What should the minimum health threshold be for an entity to be stored in the lasso?")
                 .defineInRange("min_entity_health", 1.5, 1.0, 500.0);
 
-        //The validator checks that the input is a string and that it follows the expected resource pattern. I.E minecraft:pig
-        Predicate<Object> entityWhitelistValidator =  s -> s instanceof String && ((String) s).matches("[a-z0-9]+:[a-z_]+");
+        //The validator checks that the input is a string and that it follows the expected resource pattern. I.E minecraft:pig, mymod:* or #forge:bosses
+        Predicate<Object> entityWhitelistValidator =  s -> s instanceof String && ((String) s).matches("#?[a-z0-9_.-]+:([a-z0-9_./-]+|\\*)");
 
-        VANILLA_ENTITY_WHITELIST = BUILDER.comment("Add the vanilla entities you want the lasso to pick up. Use the same pattern as the examples below.")
+        VANILLA_ENTITY_WHITELIST = BUILDER.comment("Add the vanilla entities you want the lasso to pick up. Use the same pattern as the examples below.",
+                                                   "You can also use a namespace wildcard (mymod:*) or an entity type tag (#forge:bosses).")
                                           .defineList("vanilla_entity_whitelist", DEFAULT_ENTITIES, entityWhitelistValidator);
 
         MOD_ENTITY_WHITELIST = BUILDER.comment("Same as above but for mod entities. You can put them in either, but this allows you to manage them better.")
                                       .defineList("mod_entity_whitelist", Collections.emptyList(), entityWhitelistValidator);
 
+        ENTITY_VAULT = BUILDER.comment("Do you want captured entities to be stored on the server instead of inside the lasso? The lasso will only hold a small handle. Lassos that already hold entities are moved over the first time they are used")
+                              .define("entity_vault", false);
+
+        VAULT_ORPHAN_EXPIRY_DAYS = BUILDER.comment("How many in-game days can an entity sit in the vault without its lasso being seen before it is removed? Lassos are only seen while held in a player inventory, so keep this high if lassos are left in chests. This is what cleans up after lassos removed with /clear. Set to 0 to never remove them")
+                                          .defineInRange("vault_orphan_expiry_days", 3650, 0, 100000);
+
+        COMPRESS_ENTITIES = BUILDER.comment("Do you want captured entities to be stored compressed? This makes lassos much smaller to sync and save, the entity is only decompressed when it is released")
+                                   .define("compress_entities", false);
+
+        COMPRESSION_LEVEL = BUILDER.comment("How hard should captured entities be compressed? 1 is the fastest, 9 is the smallest")
+                                   .defineInRange("compression_level", 1, 1, 9);
+
+        BATCH_CAPTURE_RADIUS = BUILDER.comment("How far around the clicked entity should a sneak click look for other entities to store? Set to 0 to turn sneak click capturing off")
+                                      .defineInRange("batch_capture_radius", 0.0, 0.0, 16.0);
+
+        BATCH_CAPTURE_MAX = BUILDER.comment("How many entities can a single sneak click store? The lasso can still never hold more than num_entities_allowed")
+                                   .defineInRange("batch_capture_max", 5, 1, 64);
+
+        BULK_RELEASE = BUILDER.comment("Do you want sneak right clicking a block to release every stored entity at once? They will be spread out around the clicked block")
+                              .define("bulk_release", false);
+
+        RELEASE_QUEUE = BUILDER.comment("Do you want released entities to be spawned over the following ticks instead of straight away? This smooths out lag spikes when releasing entities that are expensive to load")
+                               .define("release_queue", false);
+
+        RELEASE_QUEUE_BUDGET_MICROS = BUILDER.comment("How many microseconds can each dimension spend spawning queued entities per tick? At least one entity is always spawned per tick")
+                                             .defineInRange("release_queue_budget_micros", 2000, 100, 50000);
+
+        LEAN_CAPTURE = BUILDER.comment("Do you want NBT which is transient or rebuilt when an entity is released (motion, fall distance, default attributes and so on) to be left out of captured entities? This makes lassos smaller to sync and save")
+                              .define("lean_capture", false);
+
+        LEAN_CAPTURE_STRIP = BUILDER.comment("Which NBT keys should be left out of every captured entity?",
+                                             "DefaultAttributes leaves out attributes that are at the default for the entity and EmptyBrain leaves out a brain with no memories.")
+                                    .defineList("lean_capture_strip", DEFAULT_LEAN_CAPTURE_STRIP, s -> s instanceof String && ((String) s).matches("[A-Za-z0-9_]+"));
+
+        //The validator checks for an entity selector like the whitelist followed by one or more keys to strip (-Key) or keep (+Key). I.E minecraft:horse +Motion -ArmorItems
+        LEAN_CAPTURE_RULES = BUILDER.comment("Per entity rules for the lean capture. Each rule is an entity, namespace wildcard or tag followed by keys to also leave out (-Key) or to keep (+Key).",
+                                             "Rules are applied in order, for example \"mymod:* +Motion\" or \"#minecraft:raiders -PatrolTarget\".")
+                                    .defineList("lean_capture_rules", Collections.emptyList(),
+                                                s -> s instanceof String && ((String) s).matches("#?[a-z0-9_.-]+:([a-z0-9_./-]+|\\*)( [+-][A-Za-z0-9_]+)+"));
+
+        ACTION_RATE_PER_SECOND = BUILDER.comment("How many capture and how many release attempts can each player make per second? Attempts over the limit are ignored. Set to 0 to turn the limit off")
+                                        .defineInRange("action_rate_per_second", 5.0, 0.0, 100.0);
+
+        ACTION_BURST = BUILDER.comment("How many attempts can a player make in a quick burst before the above limit kicks in?")
+                              .defineInRange("action_burst", 10, 1, 100);
+
+        EXCLUDE_BOSSES = BUILDER.comment("Should boss entities (anything in the forge:bosses tag) never be stored, even when all entities are allowed?")
+                                .define("exclude_bosses", false);
+
+        CAPTURE_NAMED_ONLY = BUILDER.comment("Should only entities with a custom name (I.E from a name tag) be stored?")
+                                    .define("capture_named_only", false);
+
+        CAPTURE_BABIES_ONLY = BUILDER.comment("Should only baby entities be stored?")
+                                     .define("capture_babies_only", false);
+
+        MAX_PAYLOAD_BYTES = BUILDER.comment("What is the largest a single stored entity can be in bytes? Entities carrying lots of data, such as full inventories, are refused above this. Set to 0 for no limit")
+                                   .defineInRange("max_payload_bytes", 0, 0, 2097152);
+
+        CAPTURE_PREDICTION = BUILDER.comment("Should the client hide a captured entity and update the lasso straight away, instead of waiting for the server? This only affects the player's own client and is undone if the server refuses the capture")
+                                    .define("capture_prediction", false);
+
+        AUDIT_LOG = BUILDER.comment("Should every capture and release be written to an audit log in the emeraldlasso-audit folder of the world, with who did it, the entity and where? Takes effect when the server next starts")
+                           .define("audit_log", false);
+
+        AUDIT_LOG_MAX_FILES = BUILDER.comment("How many compressed audit log files (up to 4MB each) should be kept before the oldest is deleted?")
+                                     .defineInRange("audit_log_max_files", 20, 1, 1000);
+
+        CAPACITY_BYTE_BUDGET = BUILDER.comment("How many bytes of stored entities can each lasso hold? When this is above 0 it is used instead of num_entities_allowed, so a lasso can hold many small mobs or a few big ones. Set to 0 to use num_entities_allowed")
+                                      .defineInRange("capacity_byte_budget", 0, 0, 2097152);
+
+        //The validator checks for an entity selector like the whitelist followed by a weight. I.E minecraft:villager 2.5
+        CAPACITY_TYPE_WEIGHTS = BUILDER.comment("Per entity weights for the byte budget. Each entry is an entity, namespace wildcard or tag followed by what its size is multiplied by.",
+                                                "Entries are applied in order, for example \"minecraft:villager 2.5\" or \"#minecraft:raiders 4\".")
+                                       .defineList("capacity_type_weights", Collections.emptyList(),
+                                                   s -> s instanceof String && ((String) s).matches("#?[a-z0-9_.-]+:([a-z0-9_./-]+|\\*) [0-9]+(\\.[0-9]+)?"));
+
+        DISPENSER_LASSO = BUILDER.comment("Should dispensers be able to use lassos? A dispenser facing an entity captures it and a dispenser facing open space releases the last stored entity, following the same rules as players")
+                                 .define("dispenser_lasso", false);
+
+        DISPENSER_COOLDOWN_TICKS = BUILDER.comment("How many ticks must a dispenser wait between uses of a lasso? Stops fast redstone clocks from using lassos every tick")
+                                          .defineInRange("dispenser_cooldown_ticks", 20, 0, 1200);
+
+        DISPENSER_CHUNK_ACTIONS_PER_SECOND = BUILDER.comment("How many times per second can all the dispensers in a single chunk use lassos? Uses over the limit are skipped")
+                                                    .defineInRange("dispenser_chunk_actions_per_second", 10, 1, 1000);
+
+        STASIS_PEN_CAPACITY = BUILDER.comment("How many entities can a single stasis pen hold? Entities in a pen are never ticked")
+                                     .defineInRange("stasis_pen_capacity", 4096, 1, 65536);
+
         BUILDER.pop();
 
         SPEC_COMMON = BUILDER.build();
+
+        snapshot = readSnapshot(true);
     }
 
     /**
-     * This method is responsible for building up a list
-     * of EntityTypes from the resource tags that
+     * This method is responsible for returning the
+     * snapshot of the plain config values. Code which
+     * reads several values for one action should grab
+     * this once, so every value comes from the same config.
+     *
+     * @return The snapshot from the last config load or reload.
+     */
+    public static ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This method is responsible for returning the whitelist
+     * of EntityTypes built from the resource tags that
      * are provided in the VANILLA_ENTITY_WHITELIST and
      * MOD_ENTITY_WHITELIST config values.
      *
+     * The whitelist is built lazily the first time it is needed after a config
+     * load, reload or tag update and then shared by every thread until the next one.
+     *
      * @see ConfigManager#VANILLA_ENTITY_WHITELIST
+     * @see ConfigManager#MOD_ENTITY_WHITELIST
+     *
+     * @return The whitelist built from the config values.
+     */
+    public static EntityWhitelist getEntityWhitelist() {
+        EntityWhitelist currentWhitelist = entityWhitelist;
+
+        int currentGeneration = entityCacheGeneration.get();
+
+        if(currentWhitelist != null && currentWhitelist.getGeneration() == currentGeneration) {
+            return currentWhitelist;
+        }
+
+        List<String> entries = new ArrayList<>(VANILLA_ENTITY_WHITELIST.get());
+
+        entries.addAll(MOD_ENTITY_WHITELIST.get());
+
+        EntityWhitelist builtWhitelist = EntityWhitelist.build(entries, currentGeneration);
+
+        entityWhitelist = builtWhitelist;
+
+        return builtWhitelist;
+    }
+
+    /**
+     * This method is responsible for returning the lean
+     * capture profile built from the LEAN_CAPTURE_STRIP
+     * and LEAN_CAPTURE_RULES config values.
      *
-     * @return A list of the entity types extracted from the whitelist.
+     * Like the whitelist, the profile is built lazily after a config load,
+     * reload or tag update, since rules can select entities by tag.
+     *
+     * @see ConfigManager#LEAN_CAPTURE_STRIP
+     * @see ConfigManager#LEAN_CAPTURE_RULES
+     *
+     * @return The profile built from the config values.
      */
-    public static List<EntityType<?>> getEntityWhiteList() {
-        List<? extends String> whitelist = VANILLA_ENTITY_WHITELIST.get();
+    public static CaptureProfile getCaptureProfile() {
+        CaptureProfile currentProfile = captureProfile;
 
-        List<? extends String> modWhitelist = MOD_ENTITY_WHITELIST.get();
+        int currentGeneration = entityCacheGeneration.get();
 
-        List<EntityType<?>> allowedEntityTypes = new ArrayList<>();
+        if(currentProfile != null && currentProfile.getGeneration() == currentGeneration) {
+            return currentProfile;
+        }
 
-        for(String entityResourceTag : whitelist) {
-            Optional<EntityType<?>> currentEntity = EntityType.byString(entityResourceTag);
+        CaptureProfile builtProfile = CaptureProfile.build(LEAN_CAPTURE_STRIP.get(), LEAN_CAPTURE_RULES.get(), currentGeneration);
 
-            if(currentEntity.isEmpty()) {
-               LOGGER.error("The entity could not be found with resource {}, please check you provided the correct tag. Skipping Entity", entityResourceTag);
-               continue;
-            }
+        captureProfile = builtProfile;
 
-            allowedEntityTypes.add(currentEntity.get());
+        return builtProfile;
+    }
+
+    /**
+     * This method is responsible for returning the capture
+     * rules compiled from the current config, which decide
+     * whether an entity can be stored.
+     *
+     * The rules are compiled lazily after a config load, reload
+     * or tag update, since they include the whitelist.
+     *
+     * @see CaptureRules
+     *
+     * @return The compiled capture rules.
+     */
+    public static CaptureRules getCaptureRules() {
+        CaptureRules currentRules = captureRules;
+
+        int currentGeneration = entityCacheGeneration.get();
+
+        if(currentRules != null && currentRules.getGeneration() == currentGeneration) {
+            return currentRules;
         }
 
-        for(String entityResourceTag : modWhitelist) {
-            Optional<EntityType<?>> currentEntity = EntityType.byString(entityResourceTag);
+        CaptureRules compiledRules = CaptureRules.compile(snapshot, getEntityWhitelist(), currentGeneration);
+
+        captureRules = compiledRules;
+
+        return compiledRules;
+    }
+
+    /**
+     * This method is responsible for returning the byte
+     * budget weights built from the CAPACITY_TYPE_WEIGHTS
+     * config value.
+     *
+     * Like the whitelist, the weights are built lazily after a config load,
+     * reload or tag update, since entries can select entities by tag.
+     *
+     * @see ConfigManager#CAPACITY_TYPE_WEIGHTS
+     *
+     * @return The weights built from the config value.
+     */
+    public static CaptureWeights getCaptureWeights() {
+        CaptureWeights currentWeights = captureWeights;
 
-            if(currentEntity.isEmpty()) {
-                LOGGER.error("The entity could not be found with resource {}, please check you provided the correct tag. Skipping Entity", entityResourceTag);
-                continue;
-            }
+        int currentGeneration = entityCacheGeneration.get();
 
-            allowedEntityTypes.add(currentEntity.get());
+        if(currentWeights != null && currentWeights.getGeneration() == currentGeneration) {
+            return currentWeights;
         }
 
-        return allowedEntityTypes;
+        CaptureWeights builtWeights = CaptureWeights.build(CAPACITY_TYPE_WEIGHTS.get(), currentGeneration);
+
+        captureWeights = builtWeights;
+
+        return builtWeights;
+    }
+
+    /**
+     * This method is responsible for discarding every
+     * cache built from the entity config and tags. That is
+     * the whitelist, capture rules, lean capture profile and
+     * capture weights, which are all rebuilt the next time
+     * they are needed.
+     */
+    public static void invalidateEntityCaches() {
+        entityCacheGeneration.incrementAndGet();
     }
 
     /**
@@ -162,7 +597,7 @@ public class ConfigManager {
      * @return The integer value retrieved from NUM_ENTITIES_ALLOWED.
      */
     public static int getNumAllowedEntities() {
-        return NUM_ENTITIES_ALLOWED.get();
+        return snapshot.numAllowedEntities();
     }
 
     /**
@@ -172,13 +607,13 @@ public class ConfigManager {
      *
      * This will only be used if the ENTITY_HEALTH_SYSTEM is set to true.
      *
-     * @see ConfigManager#NUM_ENTITIES_ALLOWED
+     * @see ConfigManager#MIN_ENTITY_HEALTH
      * @see ConfigManager#ENTITY_HEALTH_SYSTEM
      *
-     * @return The integer value retrieved from NUM_ENTITIES_ALLOWED.
+     * @return The double value retrieved from MIN_ENTITY_HEALTH.
      */
-    public static Double getMinEntityHealth() {
-        return MIN_ENTITY_HEALTH.get();
+    public static double getMinEntityHealth() {
+        return snapshot.minEntityHealth();
     }
 
     /**
@@ -191,7 +626,7 @@ public class ConfigManager {
      * @return The boolean value retrieved from HAS_DURABILITY.
      */
     public static boolean hasDurability() {
-        return HAS_DURABILITY.get();
+        return snapshot.hasDurability();
     }
 
     /**
@@ -204,7 +639,7 @@ public class ConfigManager {
      * @return The boolean value retrieved from ALLOW_ALL_ENTITIES.
      */
     public static boolean allEntitiesAllowed() {
-        return ALLOW_ALL_ENTITIES.get();
+        return snapshot.allEntitiesAllowed();
     }
 
     /**
@@ -217,7 +652,342 @@ public class ConfigManager {
      * @return The boolean value retrieved from ENTITY_HEALTH_SYSTEM.
      */
     public static boolean entityHealthSystemEnabled() {
-        return ENTITY_HEALTH_SYSTEM.get();
+        return snapshot.entityHealthSystemEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the ENTITY_VAULT
+     * config value.
+     *
+     * @see ConfigManager#ENTITY_VAULT
+     *
+     * @return The boolean value retrieved from ENTITY_VAULT.
+     */
+    public static boolean entityVaultEnabled() {
+        return snapshot.entityVaultEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the VAULT_ORPHAN_EXPIRY_DAYS
+     * config value.
+     *
+     * @see ConfigManager#VAULT_ORPHAN_EXPIRY_DAYS
+     *
+     * @return The integer value retrieved from VAULT_ORPHAN_EXPIRY_DAYS.
+     */
+    public static int getVaultOrphanExpiryDays() {
+        return snapshot.vaultOrphanExpiryDays();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the COMPRESS_ENTITIES
+     * config value.
+     *
+     * @see ConfigManager#COMPRESS_ENTITIES
+     *
+     * @return The boolean value retrieved from COMPRESS_ENTITIES.
+     */
+    public static boolean compressEntitiesEnabled() {
+        return snapshot.compressEntitiesEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the COMPRESSION_LEVEL
+     * config value.
+     *
+     * @see ConfigManager#COMPRESSION_LEVEL
+     *
+     * @return The integer value retrieved from COMPRESSION_LEVEL.
+     */
+    public static int getCompressionLevel() {
+        return snapshot.compressionLevel();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the BATCH_CAPTURE_RADIUS
+     * config value.
+     *
+     * @see ConfigManager#BATCH_CAPTURE_RADIUS
+     *
+     * @return The double value retrieved from BATCH_CAPTURE_RADIUS.
+     */
+    public static double getBatchCaptureRadius() {
+        return snapshot.batchCaptureRadius();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the BATCH_CAPTURE_MAX
+     * config value.
+     *
+     * @see ConfigManager#BATCH_CAPTURE_MAX
+     *
+     * @return The integer value retrieved from BATCH_CAPTURE_MAX.
+     */
+    public static int getBatchCaptureMax() {
+        return snapshot.batchCaptureMax();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the BULK_RELEASE
+     * config value.
+     *
+     * @see ConfigManager#BULK_RELEASE
+     *
+     * @return The boolean value retrieved from BULK_RELEASE.
+     */
+    public static boolean bulkReleaseEnabled() {
+        return snapshot.bulkReleaseEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the RELEASE_QUEUE
+     * config value.
+     *
+     * @see ConfigManager#RELEASE_QUEUE
+     *
+     * @return The boolean value retrieved from RELEASE_QUEUE.
+     */
+    public static boolean releaseQueueEnabled() {
+        return snapshot.releaseQueueEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the RELEASE_QUEUE_BUDGET_MICROS
+     * config value.
+     *
+     * @see ConfigManager#RELEASE_QUEUE_BUDGET_MICROS
+     *
+     * @return The integer value retrieved from RELEASE_QUEUE_BUDGET_MICROS.
+     */
+    public static int getReleaseQueueBudgetMicros() {
+        return snapshot.releaseQueueBudgetMicros();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the LEAN_CAPTURE
+     * config value.
+     *
+     * @see ConfigManager#LEAN_CAPTURE
+     *
+     * @return The boolean value retrieved from LEAN_CAPTURE.
+     */
+    public static boolean leanCaptureEnabled() {
+        return snapshot.leanCaptureEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the ACTION_RATE_PER_SECOND
+     * config value.
+     *
+     * @see ConfigManager#ACTION_RATE_PER_SECOND
+     *
+     * @return The double value retrieved from ACTION_RATE_PER_SECOND.
+     */
+    public static double getActionRatePerSecond() {
+        return snapshot.actionRatePerSecond();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the ACTION_BURST
+     * config value.
+     *
+     * @see ConfigManager#ACTION_BURST
+     *
+     * @return The integer value retrieved from ACTION_BURST.
+     */
+    public static int getActionBurst() {
+        return snapshot.actionBurst();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the MAX_PAYLOAD_BYTES
+     * config value.
+     *
+     * @see ConfigManager#MAX_PAYLOAD_BYTES
+     *
+     * @return The integer value retrieved from MAX_PAYLOAD_BYTES.
+     */
+    public static int getMaxPayloadBytes() {
+        return snapshot.maxPayloadBytes();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the CAPTURE_PREDICTION
+     * config value.
+     *
+     * @see ConfigManager#CAPTURE_PREDICTION
+     *
+     * @return The boolean value retrieved from CAPTURE_PREDICTION.
+     */
+    public static boolean capturePredictionEnabled() {
+        return snapshot.capturePredictionEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the AUDIT_LOG
+     * config value.
+     *
+     * @see ConfigManager#AUDIT_LOG
+     *
+     * @return The boolean value retrieved from AUDIT_LOG.
+     */
+    public static boolean auditLogEnabled() {
+        return snapshot.auditLogEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the AUDIT_LOG_MAX_FILES
+     * config value.
+     *
+     * @see ConfigManager#AUDIT_LOG_MAX_FILES
+     *
+     * @return The integer value retrieved from AUDIT_LOG_MAX_FILES.
+     */
+    public static int getAuditLogMaxFiles() {
+        return snapshot.auditLogMaxFiles();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the CAPACITY_BYTE_BUDGET
+     * config value.
+     *
+     * @see ConfigManager#CAPACITY_BYTE_BUDGET
+     *
+     * @return The integer value retrieved from CAPACITY_BYTE_BUDGET.
+     */
+    public static int getCapacityByteBudget() {
+        return snapshot.capacityByteBudget();
+    }
+
+    /**
+     * This method is responsible for returning the boolean
+     * which was provided in the DISPENSER_LASSO
+     * config value.
+     *
+     * @see ConfigManager#DISPENSER_LASSO
+     *
+     * @return The boolean value retrieved from DISPENSER_LASSO.
+     */
+    public static boolean dispenserLassoEnabled() {
+        return snapshot.dispenserLassoEnabled();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the DISPENSER_COOLDOWN_TICKS
+     * config value.
+     *
+     * @see ConfigManager#DISPENSER_COOLDOWN_TICKS
+     *
+     * @return The integer value retrieved from DISPENSER_COOLDOWN_TICKS.
+     */
+    public static int getDispenserCooldownTicks() {
+        return snapshot.dispenserCooldownTicks();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the DISPENSER_CHUNK_ACTIONS_PER_SECOND
+     * config value.
+     *
+     * @see ConfigManager#DISPENSER_CHUNK_ACTIONS_PER_SECOND
+     *
+     * @return The integer value retrieved from DISPENSER_CHUNK_ACTIONS_PER_SECOND.
+     */
+    public static int getDispenserChunkActionsPerSecond() {
+        return snapshot.dispenserChunkActionsPerSecond();
+    }
+
+    /**
+     * This method is responsible for returning the number
+     * which was provided in the STASIS_PEN_CAPACITY
+     * config value.
+     *
+     * @see ConfigManager#STASIS_PEN_CAPACITY
+     *
+     * @return The integer value retrieved from STASIS_PEN_CAPACITY.
+     */
+    public static int getStasisPenCapacity() {
+        return snapshot.stasisPenCapacity();
+    }
+
+    @SubscribeEvent
+    public static void onConfigLoading(ModConfigEvent.Loading event) {
+        if(event.getConfig().getSpec() == SPEC_COMMON) {
+            snapshot = readSnapshot(false);
+
+            invalidateEntityCaches();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onConfigReloading(ModConfigEvent.Reloading event) {
+        if(event.getConfig().getSpec() == SPEC_COMMON) {
+            snapshot = readSnapshot(false);
+
+            invalidateEntityCaches();
+        }
+    }
+
+    /**
+     * This method is responsible for reading every
+     * plain config value into a new snapshot.
+     *
+     * @param useDefaults {@code true} to read the default values, used before the config file has loaded.
+     *
+     * @return The new snapshot.
+     */
+    private static ConfigSnapshot readSnapshot(boolean useDefaults) {
+        return new ConfigSnapshot(read(NUM_ENTITIES_ALLOWED, useDefaults),
+                                  read(HAS_DURABILITY, useDefaults),
+                                  read(ALLOW_ALL_ENTITIES, useDefaults),
+                                  read(ENTITY_HEALTH_SYSTEM, useDefaults),
+                                  read(MIN_ENTITY_HEALTH, useDefaults),
+                                  read(ENTITY_VAULT, useDefaults),
+                                  read(VAULT_ORPHAN_EXPIRY_DAYS, useDefaults),
+                                  read(COMPRESS_ENTITIES, useDefaults),
+                                  read(COMPRESSION_LEVEL, useDefaults),
+                                  read(BATCH_CAPTURE_RADIUS, useDefaults),
+                                  read(BATCH_CAPTURE_MAX, useDefaults),
+                                  read(BULK_RELEASE, useDefaults),
+                                  read(RELEASE_QUEUE, useDefaults),
+                                  read(RELEASE_QUEUE_BUDGET_MICROS, useDefaults),
+                                  read(LEAN_CAPTURE, useDefaults),
+                                  read(ACTION_RATE_PER_SECOND, useDefaults),
+                                  read(ACTION_BURST, useDefaults),
+                                  read(EXCLUDE_BOSSES, useDefaults),
+                                  read(CAPTURE_NAMED_ONLY, useDefaults),
+                                  read(CAPTURE_BABIES_ONLY, useDefaults),
+                                  read(MAX_PAYLOAD_BYTES, useDefaults),
+                                  read(CAPTURE_PREDICTION, useDefaults),
+                                  read(AUDIT_LOG, useDefaults),
+                                  read(AUDIT_LOG_MAX_FILES, useDefaults),
+                                  read(CAPACITY_BYTE_BUDGET, useDefaults),
+                                  read(DISPENSER_LASSO, useDefaults),
+                                  read(DISPENSER_COOLDOWN_TICKS, useDefaults),
+                                  read(DISPENSER_CHUNK_ACTIONS_PER_SECOND, useDefaults),
+                                  read(STASIS_PEN_CAPACITY, useDefaults));
+    }
+
+    private static <T> T read(ForgeConfigSpec.ConfigValue<T> configValue, boolean useDefault) {
+        return useDefault ? configValue.getDefault() : configValue.get();
     }
 
     private static void addDefaultEntities() {
@@ -237,5 +1007,20 @@ public class ConfigManager {
         DEFAULT_ENTITIES.add("minecraft:squid");
     }
 
-}
+    /**
+     * An inner class for listening to game events which affect the config.
+     */
+    @Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+    public static class ForgeEvents {
+
+        /**
+         * Tags can contribute to the whitelist, so it needs
+         * to be rebuilt whenever they are reloaded or synced.
+         */
+        @SubscribeEvent
+        public static void onTagsUpdated(TagsUpdatedEvent event) {
+            invalidateEntityCaches();
+        }
+    }
 
+}
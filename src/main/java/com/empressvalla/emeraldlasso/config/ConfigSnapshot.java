@@ -0,0 +1,99 @@
+package com.empressvalla.emeraldlasso.config;
+
+/**
+ * A record holding a copy of every plain config value,
+ * read once whenever the config is loaded or reloaded.
+ *
+ * Reading a ForgeConfigSpec value goes through a lookup and boxes the result
+ * on every call, so code that runs on every capture and release should grab
+ * the snapshot once with {@link ConfigManager#getSnapshot()} and read from it.
+ * The snapshot never changes, a new one is published when the config does.
+ *
+ * @param numAllowedEntities How many entities the lasso can store.
+ *
+ * @param hasDurability Whether the lasso takes damage.
+ *
+ * @param allEntitiesAllowed Whether the whitelist is ignored.
+ *
+ * @param entityHealthSystemEnabled Whether entities must be lowered to a health threshold before being stored.
+ *
+ * @param minEntityHealth The health threshold used by the entity health system.
+ *
+ * @param entityVaultEnabled Whether captured entities are kept in the server side vault.
+ *
+ * @param vaultOrphanExpiryDays How many in-game days an unseen vault entry lives for, 0 for forever.
+ *
+ * @param compressEntitiesEnabled Whether captured entities are compressed.
+ *
+ * @param compressionLevel The deflate level used when compressing captured entities.
+ *
+ * @param batchCaptureRadius The radius searched by a sneak click capture, 0 when it is turned off.
+ *
+ * @param batchCaptureMax The most entities a single sneak click can capture.
+ *
+ * @param bulkReleaseEnabled Whether sneak right clicking releases every stored entity.
+ *
+ * @param releaseQueueEnabled Whether released entities are spawned over the following ticks.
+ *
+ * @param releaseQueueBudgetMicros How many microseconds each level can spend spawning queued entities per tick.
+ *
+ * @param leanCaptureEnabled Whether transient and regenerated NBT is stripped from captured entities.
+ *
+ * @param actionRatePerSecond How many capture and release attempts each player can make per second, 0 for no limit.
+ *
+ * @param actionBurst How many attempts a player can make in a quick burst.
+ *
+ * @param excludeBosses Whether entities in the forge:bosses tag can never be stored.
+ *
+ * @param namedOnly Whether only entities with a custom name can be stored.
+ *
+ * @param babiesOnly Whether only baby entities can be stored.
+ *
+ * @param maxPayloadBytes The largest payload a single stored entity can take up, 0 for no limit.
+ *
+ * @param capturePredictionEnabled Whether the client hides a captured entity before the server confirms it.
+ *
+ * @param auditLogEnabled Whether captures and releases are written to the audit log.
+ *
+ * @param auditLogMaxFiles How many audit log files are kept.
+ *
+ * @param capacityByteBudget How many weighted bytes of stored entities each lasso can hold, 0 to use numAllowedEntities.
+ *
+ * @param dispenserLassoEnabled Whether dispensers can capture and release entities with a lasso.
+ *
+ * @param dispenserCooldownTicks How many ticks a dispenser waits between uses of a lasso.
+ *
+ * @param dispenserChunkActionsPerSecond How many lasso uses the dispensers in a chunk can make per second.
+ *
+ * @param stasisPenCapacity How many entities a single stasis pen can hold.
+ */
+public record ConfigSnapshot(int numAllowedEntities,
+                             boolean hasDurability,
+                             boolean allEntitiesAllowed,
+                             boolean entityHealthSystemEnabled,
+                             double minEntityHealth,
+                             boolean entityVaultEnabled,
+                             int vaultOrphanExpiryDays,
+                             boolean compressEntitiesEnabled,
+                             int compressionLevel,
+                             double batchCaptureRadius,
+                             int batchCaptureMax,
+                             boolean bulkReleaseEnabled,
+                             boolean releaseQueueEnabled,
+                             int releaseQueueBudgetMicros,
+                             boolean leanCaptureEnabled,
+                             double actionRatePerSecond,
+                             int actionBurst,
+                             boolean excludeBosses,
+                             boolean namedOnly,
+                             boolean babiesOnly,
+                             int maxPayloadBytes,
+                             boolean capturePredictionEnabled,
+                             boolean auditLogEnabled,
+                             int auditLogMaxFiles,
+                             int capacityByteBudget,
+                             boolean dispenserLassoEnabled,
+                             int dispenserCooldownTicks,
+                             int dispenserChunkActionsPerSecond,
+                             int stasisPenCapacity) {
+}
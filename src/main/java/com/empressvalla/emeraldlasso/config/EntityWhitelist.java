@@ -0,0 +1,152 @@
+package com.empressvalla.emeraldlasso.config;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.EntityType;
+import org.slf4j.Logger;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class is responsible for holding an immutable
+ * view of the entity whitelist, indexed by the entity
+ * registry ID so that a membership check is a single
+ * bit lookup.
+ *
+ * Namespace wildcards (mymod:*) and entity type tags (#forge:bosses)
+ * are expanded once when the whitelist is built, never at lookup time.
+ */
+public final class EntityWhitelist {
+
+    /**
+     * The prefix which marks a whitelist entry as an entity type tag.
+     */
+    private static final String TAG_PREFIX = "#";
+
+    /**
+     * The path which marks a whitelist entry as a namespace wildcard.
+     */
+    private static final String WILDCARD_PATH = "*";
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /**
+     * Responsible for storing the registry IDs of every allowed entity type. This is never
+     * mutated after construction.
+     */
+    private final BitSet allowedIds;
+
+    /**
+     * Responsible for storing the config generation this whitelist was built from.
+     *
+     * @see ConfigManager#getEntityWhitelist()
+     */
+    private final int generation;
+
+    private EntityWhitelist(BitSet allowedIds, int generation) {
+        this.allowedIds = allowedIds;
+        this.generation = generation;
+    }
+
+    /**
+     * This method is responsible for checking whether
+     * the given entity type is on the whitelist.
+     *
+     * @param entityType The entity type to check.
+     *
+     * @return {@code true} if the entity type is allowed {@code false} otherwise.
+     */
+    public boolean contains(EntityType<?> entityType) {
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(entityType);
+
+        return id >= 0 && allowedIds.get(id);
+    }
+
+    /**
+     * This method is responsible for returning
+     * whether the whitelist allows no entities at all.
+     *
+     * @return {@code true} if nothing is allowed {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return allowedIds.isEmpty();
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * This method is responsible for building a whitelist
+     * from the raw config entries. Each entry can either be
+     * an entity resource (minecraft:pig), a namespace wildcard
+     * (mymod:*) or an entity type tag (#forge:bosses).
+     *
+     * Tags are only bound once a world is loaded, so a whitelist built
+     * before that point will not contain any tag members.
+     *
+     * @param entries The raw config entries.
+     *
+     * @param generation The config generation the entries were read from.
+     *
+     * @return The built whitelist.
+     */
+    static EntityWhitelist build(List<? extends String> entries, int generation) {
+        BitSet allowedIds = new BitSet(BuiltInRegistries.ENTITY_TYPE.size());
+
+        Set<String> namespaces = new HashSet<>();
+
+        for(String entry : entries) {
+            if(entry.startsWith(TAG_PREFIX)) {
+                ResourceLocation tagLocation = ResourceLocation.tryParse(entry.substring(TAG_PREFIX.length()));
+
+                if(tagLocation == null) {
+                    LOGGER.error("The entity tag {} is not a valid resource, please check you provided the correct tag. Skipping Tag", entry);
+                    continue;
+                }
+
+                TagKey<EntityType<?>> tagKey = TagKey.create(Registries.ENTITY_TYPE, tagLocation);
+
+                for(Holder<EntityType<?>> holder : BuiltInRegistries.ENTITY_TYPE.getTagOrEmpty(tagKey)) {
+                    allowedIds.set(BuiltInRegistries.ENTITY_TYPE.getId(holder.value()));
+                }
+
+                continue;
+            }
+
+            int separator = entry.indexOf(':');
+
+            if(separator > 0 && entry.substring(separator + 1).equals(WILDCARD_PATH)) {
+                namespaces.add(entry.substring(0, separator));
+                continue;
+            }
+
+            ResourceLocation entityLocation = ResourceLocation.tryParse(entry);
+
+            if(entityLocation == null || !BuiltInRegistries.ENTITY_TYPE.containsKey(entityLocation)) {
+                LOGGER.error("The entity could not be found with resource {}, please check you provided the correct tag. Skipping Entity", entry);
+                continue;
+            }
+
+            allowedIds.set(BuiltInRegistries.ENTITY_TYPE.getId(BuiltInRegistries.ENTITY_TYPE.get(entityLocation)));
+        }
+
+        if(!namespaces.isEmpty()) {
+            for(EntityType<?> entityType : BuiltInRegistries.ENTITY_TYPE) {
+                if(namespaces.contains(BuiltInRegistries.ENTITY_TYPE.getKey(entityType).getNamespace())) {
+                    allowedIds.set(BuiltInRegistries.ENTITY_TYPE.getId(entityType));
+                }
+            }
+        }
+
+        return new EntityWhitelist(allowedIds, generation);
+    }
+
+}
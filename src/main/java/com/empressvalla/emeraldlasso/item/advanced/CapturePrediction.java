@@ -0,0 +1,193 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class is responsible for keeping track of captures
+ * the client has predicted but the server has not answered yet,
+ * so that a captured entity disappears and the lasso updates the
+ * moment it is clicked instead of one round trip later.
+ *
+ * Nothing is written to the lasso itself. A prediction belongs to the
+ * exact item stack that was used, and the server always replaces that
+ * stack when a capture goes through, so the real contents take over from
+ * the prediction on their own. A prediction is dropped once the server
+ * removes the entity, refuses the capture or takes too long to answer,
+ * at which point the entity shows again and the lasso goes back to
+ * what the server last sent.
+ *
+ * Only used on the logical client, from the client thread.
+ *
+ * @see ConfigManager#capturePredictionEnabled()
+ */
+public final class CapturePrediction {
+
+    /**
+     * How many client ticks a prediction is kept for without an answer from the server.
+     */
+    private static final int TIMEOUT_TICKS = 60;
+
+    /**
+     * Responsible for storing the predictions waiting for the server, oldest first.
+     * There are only ever a handful, so a list is quicker than a map.
+     */
+    private static final List<Prediction> PREDICTIONS = new ArrayList<>();
+
+    private CapturePrediction() {
+    }
+
+    /**
+     * This method is responsible for predicting that the
+     * given entity will be stored in the given lasso.
+     *
+     * @param itemStack The lasso item stack that was used.
+     *
+     * @param targetEntity The entity that was clicked on.
+     *
+     * @param tick The current client game time.
+     *
+     * @return {@code true} if a new prediction was made {@code false} if the entity was already predicted.
+     */
+    public static boolean predict(ItemStack itemStack, Entity targetEntity, long tick) {
+        if(isHidden(targetEntity.getId())) {
+            return false;
+        }
+
+        CompoundTag entityTag = new CompoundTag();
+
+        targetEntity.saveWithoutId(entityTag);
+
+        PREDICTIONS.add(new Prediction(targetEntity.getId(), itemStack, ContentsHeader.describe(targetEntity, entityTag), tick + TIMEOUT_TICKS));
+
+        return true;
+    }
+
+    /**
+     * This method is responsible for returning whether an
+     * entity is hidden because its capture was predicted.
+     *
+     * @param entityId The network ID of the entity.
+     *
+     * @return {@code true} if the entity should not be rendered.
+     */
+    public static boolean isHidden(int entityId) {
+        for(Prediction prediction : PREDICTIONS) {
+            if(prediction.entityId() == entityId) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is responsible for returning how many
+     * entities are predicted to be added to the given lasso.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @return The number of predicted entities.
+     */
+    public static int getPredictedCount(ItemStack itemStack) {
+        int count = 0;
+
+        for(Prediction prediction : PREDICTIONS) {
+            if(prediction.itemStack() == itemStack) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * This method is responsible for returning the entries
+     * predicted to be added to the given lasso.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @return The predicted entries, oldest first. Empty for any stack the server has since replaced.
+     */
+    public static List<ContentsHeader.Entry> getPredictedEntries(ItemStack itemStack) {
+        if(PREDICTIONS.isEmpty()) {
+            return List.of();
+        }
+
+        List<ContentsHeader.Entry> entries = new ArrayList<>(PREDICTIONS.size());
+
+        for(Prediction prediction : PREDICTIONS) {
+            if(prediction.itemStack() == itemStack) {
+                entries.add(prediction.entry());
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * This method is responsible for undoing the prediction
+     * for an entity the server refused to store.
+     *
+     * @param entityId The network ID of the entity.
+     */
+    public static void reject(int entityId) {
+        PREDICTIONS.removeIf(prediction -> prediction.entityId() == entityId);
+    }
+
+    /**
+     * This method is responsible for forgetting the
+     * prediction for an entity which has been removed
+     * from the client level, since it has nothing left
+     * to hide.
+     *
+     * @param entityId The network ID of the entity.
+     */
+    public static void forget(int entityId) {
+        reject(entityId);
+    }
+
+    /**
+     * This method is responsible for dropping predictions
+     * the server has taken too long to answer.
+     *
+     * @param tick The current client game time.
+     */
+    public static void tick(long tick) {
+        Iterator<Prediction> iterator = PREDICTIONS.iterator();
+
+        while(iterator.hasNext() && iterator.next().expiryTick() <= tick) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * This method is responsible for dropping every
+     * prediction, used when the client leaves a world.
+     */
+    public static void clear() {
+        PREDICTIONS.clear();
+    }
+
+    /**
+     * A record holding a single predicted capture.
+     *
+     * @param entityId The network ID of the entity predicted to be captured.
+     *
+     * @param itemStack The lasso item stack it is predicted to be stored in.
+     *
+     * @param entry The entry describing the entity, shown in the lasso tooltip.
+     *
+     * @param expiryTick The client game time the prediction is dropped at.
+     */
+    private record Prediction(int entityId, ItemStack itemStack, ContentsHeader.Entry entry, long expiryTick) {
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is responsible for limiting how often dispensers
+ * can use lassos, so that a redstone clock or a wall of dispensers
+ * can not make the server capture and release entities every tick.
+ *
+ * Each dispenser has to wait the configured number of ticks between
+ * uses, and all the dispensers in a chunk share a number of uses per
+ * second. Uses over either limit are skipped, the dispenser simply
+ * does nothing until it is powered again.
+ *
+ * @see ConfigManager#getDispenserCooldownTicks()
+ * @see ConfigManager#getDispenserChunkActionsPerSecond()
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public final class DispenserThrottle {
+
+    /**
+     * The number of server ticks in a second.
+     */
+    private static final int TICKS_PER_SECOND = 20;
+
+    /**
+     * How many ticks pass between removing the cooldowns that have run out.
+     */
+    private static final int CLEANUP_INTERVAL_TICKS = 600;
+
+    /**
+     * Responsible for storing the limits of each level. Only accessed from the server thread.
+     */
+    private static final Map<ServerLevel, LevelLimits> LIMITS = new HashMap<>();
+
+    private DispenserThrottle() {
+    }
+
+    /**
+     * This method is responsible for deciding whether
+     * the dispenser at the given position can use a
+     * lasso this tick, and counting the use if it can.
+     *
+     * @param level The level the dispenser is in.
+     *
+     * @param dispenserPosition The position of the dispenser.
+     *
+     * @param config The config snapshot the use was started with.
+     *
+     * @return {@code true} if the dispenser can use the lasso {@code false} if it is over a limit.
+     */
+    public static boolean tryAcquire(ServerLevel level, BlockPos dispenserPosition, ConfigSnapshot config) {
+        LevelLimits limits = LIMITS.computeIfAbsent(level, key -> new LevelLimits());
+
+        long tick = level.getGameTime();
+
+        limits.cleanUp(tick);
+
+        long dispenserKey = dispenserPosition.asLong();
+
+        if(tick < limits.nextUseTicks.get(dispenserKey)) {
+            return false;
+        }
+
+        long second = tick / TICKS_PER_SECOND;
+
+        if(second != limits.countedSecond) {
+            limits.chunkUses.clear();
+
+            limits.countedSecond = second;
+        }
+
+        long chunkKey = ChunkPos.asLong(dispenserPosition);
+
+        if(limits.chunkUses.get(chunkKey) >= config.dispenserChunkActionsPerSecond()) {
+            return false;
+        }
+
+        limits.chunkUses.addTo(chunkKey, 1);
+
+        if(config.dispenserCooldownTicks() > 0) {
+            limits.nextUseTicks.put(dispenserKey, tick + config.dispenserCooldownTicks());
+        }
+
+        return true;
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if(event.getLevel() instanceof ServerLevel serverLevel) {
+            LIMITS.remove(serverLevel);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        LIMITS.clear();
+    }
+
+    /**
+     * An inner class for holding the limits of a single level.
+     */
+    private static class LevelLimits {
+
+        /**
+         * Responsible for storing the game time each dispenser can next use a lasso at, keyed by its packed position.
+         */
+        private final Long2LongOpenHashMap nextUseTicks = new Long2LongOpenHashMap();
+
+        /**
+         * Responsible for storing how many times the dispensers in each chunk have used a lasso this second, keyed by the packed chunk position.
+         */
+        private final Long2IntOpenHashMap chunkUses = new Long2IntOpenHashMap();
+
+        private long countedSecond = -1;
+
+        private long nextCleanupTick;
+
+        /**
+         * Dispensers which are broken or never used again would
+         * otherwise keep their cooldown forever, so the ones that
+         * have run out are removed every so often.
+         */
+        private void cleanUp(long tick) {
+            if(tick < nextCleanupTick) {
+                return;
+            }
+
+            nextUseTicks.long2LongEntrySet().removeIf(entry -> entry.getLongValue() <= tick);
+
+            nextCleanupTick = tick + CLEANUP_INTERVAL_TICKS;
+        }
+    }
+
+}
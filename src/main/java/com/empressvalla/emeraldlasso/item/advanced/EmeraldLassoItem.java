@@ -1,16 +1,37 @@
 package com.empressvalla.emeraldlasso.item.advanced;
 
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.audit.AuditLog;
+import com.empressvalla.emeraldlasso.config.CaptureRules;
+import com.empressvalla.emeraldlasso.config.CaptureWeights;
 import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import com.empressvalla.emeraldlasso.metrics.CaptureEvent;
+import com.empressvalla.emeraldlasso.metrics.LassoMetrics;
+import com.empressvalla.emeraldlasso.metrics.RejectReason;
+import com.empressvalla.emeraldlasso.metrics.ReleaseEvent;
+import com.empressvalla.emeraldlasso.network.CapturePredictedPacket;
+import com.empressvalla.emeraldlasso.network.ModNetwork;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import com.empressvalla.emeraldlasso.storage.PayloadCodec;
+import com.empressvalla.emeraldlasso.storage.PayloadStore;
+import com.empressvalla.emeraldlasso.storage.PayloadUpgrader;
+import com.empressvalla.emeraldlasso.storage.ShareTagCache;
+import com.mojang.logging.LogUtils;
 import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.Tag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Style;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.Mth;
+import net.minecraft.util.profiling.ProfilerFiller;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.Entity;
@@ -18,18 +39,31 @@ import net.minecraft.world.entity.Entity.RemovalReason;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.tooltip.TooltipComponent;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.TooltipFlag;
 import net.minecraft.world.item.context.UseOnContext;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.entity.item.ItemExpireEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.util.thread.EffectiveSide;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * This class is responsible for providing all functionality related to the Emerald Lasso custom
@@ -39,13 +73,21 @@ import java.util.Optional;
 public class EmeraldLassoItem extends Item {
 
     /**
-     * This list holds the whitelist of entity types which are allowed in the lasso.
-     * This will start off empty but be populated from the config file the first
-     * time an entity is interacted with.
-     *
-     * @see ConfigManager#getEntityWhiteList() For more details.
+     * How often, in game ticks, a held lasso marks its vault entries as still in use.
+     */
+    private static final int VAULT_TOUCH_INTERVAL = 1200;
+
+    /**
+     * How far, in blocks, released entities are spread around the clicked block when releasing them all at once.
      */
-    private static List<EntityType<?>> entityWhitelist = new ArrayList<>();
+    private static final int RELEASE_SPREAD_RADIUS = 2;
+
+    /**
+     * The most entities a lasso can hold when its capacity is a byte budget, however small they are.
+     */
+    private static final int BUDGET_MAX_ENTITIES = 64;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
 
     public EmeraldLassoItem(Properties properties) {
         super(properties
@@ -53,6 +95,17 @@ public class EmeraldLassoItem extends Item {
                 .durability(250));
     }
 
+    /**
+     * Every lasso carries a decoded view of its contents,
+     * so that reading them does not walk the NBT each time.
+     *
+     * @see LassoContents
+     */
+    @Override
+    public ICapabilityProvider initCapabilities(ItemStack itemStack, @Nullable CompoundTag capabilityTag) {
+        return new LassoContents.Provider(itemStack);
+    }
+
     @Override
     public boolean doesSneakBypassUse(ItemStack stack, LevelReader level, BlockPos pos, Player player) {
         return true;
@@ -60,9 +113,7 @@ public class EmeraldLassoItem extends Item {
 
     @Override
     public boolean isFoil(ItemStack itemStack) {
-        ListTag entityList = getEntities(itemStack);
-
-        return !entityList.isEmpty();
+        return getStoredCount(itemStack) > 0 || CapturePrediction.getPredictedCount(itemStack) > 0;
     }
 
     @Override
@@ -75,79 +126,200 @@ public class EmeraldLassoItem extends Item {
         tooltip.add(Component.translatable("emeraldlasso.tooltips.release")
                             .withStyle(Style.EMPTY.applyFormat(ChatFormatting.YELLOW)));
 
-        ListTag entityList = getEntities(itemStack);
+        for(ContentsHeader.Entry entry : getContents(itemStack)) {
+            MutableComponent tooltipComponent = entry.name().isEmpty()
+                    ? Component.translatable("emeraldlasso.tooltips.entities", entry.getTypeDescription())
+                    : Component.translatable("emeraldlasso.tooltips.entities_named", entry.name(), entry.getTypeDescription());
 
-        if(!entityList.isEmpty()) {
-            for (Tag currentEntityTag : entityList) {
-                Optional<EntityType<?>> entityType = EntityType.by((CompoundTag) currentEntityTag);
+            tooltip.add(tooltipComponent.withStyle(Style.EMPTY.applyFormat(ChatFormatting.LIGHT_PURPLE)));
+        }
 
-                Component entityDescription = entityType.map(EntityType::getDescription)
-                                                        .orElse(Component.literal("Unknown Entity"));
+        int byteBudget = ConfigManager.getCapacityByteBudget();
 
-                MutableComponent tooltipComponent = Component.translatable("emeraldlasso.tooltips.entities", entityDescription)
-                                                             .withStyle(Style.EMPTY.applyFormat(ChatFormatting.LIGHT_PURPLE));
+        if(byteBudget > 0) {
+            long freeBytes = Math.max(0, byteBudget - LassoContents.of(itemStack).getUsedBytes());
 
-                tooltip.add(tooltipComponent);
-            }
+            tooltip.add(Component.translatable("emeraldlasso.tooltips.capacity", freeBytes, byteBudget)
+                                 .withStyle(Style.EMPTY.applyFormat(ChatFormatting.GRAY)));
         }
     }
 
+    /**
+     * The client renders a preview of every stored entity
+     * under the tooltip text, built from the contents header.
+     *
+     * @see LassoContentsTooltip
+     */
+    @Override
+    public Optional<TooltipComponent> getTooltipImage(ItemStack itemStack) {
+        List<ContentsHeader.Entry> contents = getContents(itemStack);
+
+        return contents.isEmpty() ? Optional.empty() : Optional.of(new LassoContentsTooltip(contents));
+    }
+
 
     @Override
     public boolean onLeftClickEntity(ItemStack stack, Player player, Entity targetEntity) {
         InteractionHand hand = player.getUsedItemHand();
 
-        ListTag entityList = getEntities(stack);
+        ConfigSnapshot config = ConfigManager.getSnapshot();
 
-        boolean requirementsMet = hand == InteractionHand.MAIN_HAND
-                                  && isEntityValid(targetEntity)
-                                  && entityList.size() != ConfigManager.getNumAllowedEntities();
+        // Attempts over the limit are dropped before any of the checks below run.
+        if(!player.getLevel().isClientSide() && !PlayerActionLimiter.tryAcquire(player, PlayerActionLimiter.Action.CAPTURE, config)) {
+            LassoMetrics.recordRejection(RejectReason.RATE_LIMITED, targetEntity);
 
-        Level level = player.getLevel();
+            return true;
+        }
 
-        if(ConfigManager.entityHealthSystemEnabled()) {
-            // Reminder: We already checked if the target is of type LivingEntity in isEntityValid, so we can safely cast it.
-            LivingEntity livingEntityTarget = (LivingEntity) targetEntity;
+        if(player.isShiftKeyDown() && config.batchCaptureRadius() > 0 && hand == InteractionHand.MAIN_HAND) {
+            if(!player.getLevel().isClientSide()) {
+                captureNearby((ServerLevel) player.getLevel(), player, stack, targetEntity, config);
+            }
 
-            float health = livingEntityTarget.getHealth();
+            return true;
+        }
 
-            double minEntityHealth = ConfigManager.getMinEntityHealth();
+        if(hand != InteractionHand.MAIN_HAND) {
+            return super.onLeftClickEntity(stack, player, targetEntity);
+        }
 
-            requirementsMet = requirementsMet && health <= minEntityHealth;
+        Level level = player.getLevel();
 
-            if(health > minEntityHealth && !level.isClientSide()){
-                player.sendSystemMessage(
-                         Component.translatable("emeraldlasso.messages.entity_health_high", health, minEntityHealth)
-                                  .withStyle(Style.EMPTY.applyFormat(ChatFormatting.RED)));
+        if(level.isClientSide()) {
+            // Captures the client has predicted but the server has not confirmed yet already take up space.
+            int storedCount = getStoredCount(stack) + CapturePrediction.getPredictedCount(stack);
+
+            if(isFull(stack, storedCount, config) || ConfigManager.getCaptureRules().test(targetEntity) != null) {
+                return super.onLeftClickEntity(stack, player, targetEntity);
+            }
+
+            // The server answers the prediction packet rather than the click, so a refusal is never missed.
+            if(config.capturePredictionEnabled() && CapturePrediction.predict(stack, targetEntity, level.getGameTime())) {
+                ModNetwork.sendToServer(new CapturePredictedPacket(targetEntity.getId()));
             }
+
+            return true;
         }
 
-        if(requirementsMet) {
+        RejectReason rejectReason = captureEntity((ServerLevel) level, player, stack, targetEntity, config);
 
-            if(!level.isClientSide()) {
-                targetEntity.stopRiding();
+        if(rejectReason == null) {
+            return true;
+        }
 
-                targetEntity.ejectPassengers();
+        notifyRejected(player, targetEntity, rejectReason, config);
 
-                CompoundTag entityTag = new CompoundTag();
+        return super.onLeftClickEntity(stack, player, targetEntity);
+    }
 
-                targetEntity.save(entityTag);
+    /**
+     * This method is responsible for checking an entity
+     * against the capture rules and the space left in the
+     * lasso, and storing it if it passes. Refusals are recorded
+     * but the player is not told, that is up to the caller.
+     *
+     * @param level The level the entity is in.
+     *
+     * @param player The player using the lasso, {@code null} if it is used by a dispenser.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param targetEntity The entity to capture.
+     *
+     * @param config The config snapshot the capture was started with.
+     *
+     * @return {@code null} if the entity was stored, otherwise the reason it was not.
+     */
+    @Nullable
+    static RejectReason captureEntity(ServerLevel level, @Nullable Player player, ItemStack itemStack, Entity targetEntity, ConfigSnapshot config) {
+        RejectReason rejectReason = isFull(itemStack, getStoredCount(itemStack), config)
+                                    ? RejectReason.CAPACITY
+                                    : ConfigManager.getCaptureRules().test(targetEntity);
 
-                entityList.add(entityTag);
+        if(rejectReason == null) {
+            ListTag entityList = getEntitiesForWrite(itemStack);
 
-                targetEntity.remove(RemovalReason.DISCARDED);
+            boolean migrated = PayloadStore.migrate(level, entityList);
 
-                saveEntities(stack, entityList);
+            repairContents(level, itemStack, entityList);
 
-                BlockPos position = player.getOnPos();
+            rejectReason = storeEntity(level, player == null ? null : player.getUUID(), LassoContents.of(itemStack), entityList, targetEntity, config);
 
-                level.playSound(null, position, SoundEvents.ENDERMAN_TELEPORT, SoundSource.AMBIENT, 0.5f, 1f);
+            // A refused capture leaves the lasso as it was, so it is not synced again.
+            if(rejectReason == null || migrated) {
+                saveEntities(itemStack, entityList);
+
+                markContentsChanged(level, itemStack.getOrCreateTag());
             }
+        }
 
-            return true;
+        if(rejectReason != null) {
+            LassoMetrics.recordRejection(rejectReason, targetEntity);
+
+            return rejectReason;
         }
 
-        return super.onLeftClickEntity(stack, player, targetEntity);
+        level.playSound(null, player == null ? targetEntity.blockPosition() : player.getOnPos(), SoundEvents.ENDERMAN_TELEPORT, SoundSource.AMBIENT, 0.5f, 1f);
+
+        return null;
+    }
+
+    /**
+     * This method is responsible for returning the most
+     * entities a lasso can hold with the current config.
+     *
+     * @param config The config snapshot the action was started with.
+     *
+     * @return The most entities a lasso can hold.
+     */
+    private static int getMaxEntities(ConfigSnapshot config) {
+        return config.capacityByteBudget() > 0 ? BUDGET_MAX_ENTITIES : config.numAllowedEntities();
+    }
+
+    /**
+     * This method is responsible for determining whether
+     * a lasso has no room left at all. When the capacity is
+     * a byte budget, an entity that does not fit in the bytes
+     * left can only be found once it has been saved.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param storedCount The number of entities in the lasso.
+     *
+     * @param config The config snapshot the action was started with.
+     *
+     * @return {@code true} if nothing more can be stored.
+     */
+    private static boolean isFull(ItemStack itemStack, int storedCount, ConfigSnapshot config) {
+        return storedCount >= getMaxEntities(config)
+               || (config.capacityByteBudget() > 0 && LassoContents.of(itemStack).getUsedBytes() >= config.capacityByteBudget());
+    }
+
+    /**
+     * This method is responsible for telling the player
+     * why an entity could not be stored. The message is
+     * shown on the action bar and at most once a second,
+     * so repeated clicks do not flood the player.
+     *
+     * @param player The player using the lasso.
+     *
+     * @param targetEntity The entity which was refused.
+     *
+     * @param reason The reason the entity was refused.
+     *
+     * @param config The config snapshot the capture was started with.
+     */
+    private static void notifyRejected(Player player, Entity targetEntity, RejectReason reason, ConfigSnapshot config) {
+        // Hitting something that could never be stored, like an item frame, is not worth a message.
+        if(reason == RejectReason.INVALID || !PlayerActionLimiter.shouldSendRejectMessage(player)) {
+            return;
+        }
+
+        Component message = reason == RejectReason.HEALTH
+                ? Component.translatable("emeraldlasso.messages.entity_health_high", ((LivingEntity) targetEntity).getHealth(), config.minEntityHealth())
+                : Component.translatable("emeraldlasso.messages.rejected." + reason.getSerializedName());
+
+        player.displayClientMessage(message.copy().withStyle(Style.EMPTY.applyFormat(ChatFormatting.RED)), true);
     }
 
     @Override
@@ -170,83 +342,916 @@ public class EmeraldLassoItem extends Item {
 
         ItemStack heldItemStack = player.getItemInHand(hand);
 
-        ListTag entityList = getEntities(heldItemStack);
+        if(getStoredCount(heldItemStack) == 0 || hand != InteractionHand.MAIN_HAND) {
+            return InteractionResult.FAIL;
+        }
+
+        ServerLevel serverLevel = (ServerLevel) level;
+
+        ConfigSnapshot config = ConfigManager.getSnapshot();
 
-        if(entityList.isEmpty() || hand != InteractionHand.MAIN_HAND) {
+        if(!PlayerActionLimiter.tryAcquire(player, PlayerActionLimiter.Action.RELEASE, config)) {
             return InteractionResult.FAIL;
         }
 
+        if(player.isShiftKeyDown() && config.bulkReleaseEnabled()) {
+            return releaseAll(serverLevel, player, heldItemStack, position, config);
+        }
+
+        return releaseLast(serverLevel, player, heldItemStack, position, config) ? InteractionResult.SUCCESS : InteractionResult.FAIL;
+    }
+
+    /**
+     * This method is responsible for releasing the most
+     * recently stored entity in the lasso at the given
+     * position, and damaging the lasso for it.
+     *
+     * @param level The level the entity is being released in.
+     *
+     * @param player The player using the lasso, {@code null} if it is used by a dispenser.
+     *
+     * @param itemStack The lasso item stack. Must hold at least one entity.
+     *
+     * @param position The position to release the entity at.
+     *
+     * @param config The config snapshot the release was started with.
+     *
+     * @return {@code true} if the entity was released or queued {@code false} if it could not be loaded.
+     */
+    static boolean releaseLast(ServerLevel level, @Nullable Player player, ItemStack itemStack, BlockPos position, ConfigSnapshot config) {
+        ListTag entityList = getEntitiesForWrite(itemStack);
+
         int itemIndex = entityList.size() - 1;
 
-        CompoundTag entityTag = entityList.getCompound(itemIndex);
+        CompoundTag entry = entityList.getCompound(itemIndex);
+
+        repairContents(level, itemStack, entityList);
 
         entityList.remove(itemIndex);
 
-        saveEntities(heldItemStack, entityList);
+        LassoContents.of(itemStack).removeLast();
 
-        Entity entityToLoad = EntityType.loadEntityRecursive(entityTag, level, entity -> entity);
+        PayloadStore.migrate(level, entityList);
 
-        if(entityToLoad == null) {
-            return InteractionResult.FAIL;
+        saveEntities(itemStack, entityList);
+
+        markContentsChanged(level, itemStack.getOrCreateTag());
+
+        // Copies of a lasso share its handles, so the entity may already have been released from another copy.
+        if(PayloadStore.isMissing(level, entry)) {
+            if(player != null) {
+                player.displayClientMessage(Component.translatable("emeraldlasso.messages.payload_missing"), true);
+            }
+
+            return false;
         }
 
-        entityToLoad.setPos(position.getX() + 0.5, position.getY(), position.getZ() + 0.5);
+        return releaseEntity(level, player == null ? null : player.getUUID(), entry, position, config,
+                             () -> chargeRelease(level, player, itemStack, position, config));
+    }
 
-        level.addFreshEntity(entityToLoad);
+    /**
+     * This method is responsible for charging a lasso
+     * for an entity it released, once the entity is
+     * actually in the level. Queued releases are only
+     * charged when they spawn, and not at all if the
+     * server stops before they do.
+     *
+     * @param level The level the entity was released in.
+     *
+     * @param player The player who used the lasso, {@code null} if it was used by a dispenser.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param position The position the entity was released at.
+     *
+     * @param config The config snapshot the release was started with.
+     */
+    private static void chargeRelease(ServerLevel level, @Nullable Player player, ItemStack itemStack, BlockPos position, ConfigSnapshot config) {
+        if(config.hasDurability() && !itemStack.isEmpty()) {
+            damageLasso(level, player, itemStack, 5);
 
-        if(ConfigManager.hasDurability()) {
-            heldItemStack.hurtAndBreak(5, player, p -> p.broadcastBreakEvent(EquipmentSlot.MAINHAND));
+            // The lasso broke with entities still inside, so they can never be released.
+            if(itemStack.isEmpty()) {
+                discardEntities(level, readEntities(itemStack));
+            }
         }
 
         level.playSound(null, position, SoundEvents.CHICKEN_EGG, SoundSource.BLOCKS, 0.5f, 1f);
+    }
 
-        return InteractionResult.SUCCESS;
+    /**
+     * This method is responsible for damaging a lasso,
+     * breaking it if it runs out of durability.
+     *
+     * @param level The level the lasso is being used in.
+     *
+     * @param player The player using the lasso, {@code null} if it is used by a dispenser.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param amount The amount of durability to take.
+     */
+    private static void damageLasso(ServerLevel level, @Nullable Player player, ItemStack itemStack, int amount) {
+        if(player != null) {
+            itemStack.hurtAndBreak(amount, player, p -> p.broadcastBreakEvent(EquipmentSlot.MAINHAND));
+        } else if(itemStack.hurt(amount, level.getRandom(), null)) {
+            itemStack.shrink(1);
+
+            itemStack.setDamageValue(0);
+        }
     }
 
     /**
-     * This method is responsible for determining
-     * if the entity the player is attempting to pick
-     * up can be stored in the lasso.
+     * This method is responsible for releasing every
+     * entity in the lasso in one go. The spots they are
+     * released at are worked out once up front and spread
+     * over the free space around the clicked block, so they
+     * do not all pile up in a single block.
+     *
+     * @param level The level the player is in.
+     *
+     * @param player The player using the lasso.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param position The position next to the clicked face.
      *
-     * @param target The target entity the player is trying to store.
+     * @param config The config snapshot the release was started with.
      *
-     * @return {@code true} if the entity is valid {@code false} otherwise.
+     * @return The result of the interaction.
      */
-    private static boolean isEntityValid(Entity target) {
-        boolean baseCheck = target instanceof LivingEntity && target.isAlive() && !target.isInWall();
+    private static InteractionResult releaseAll(ServerLevel level, Player player, ItemStack itemStack, BlockPos position, ConfigSnapshot config) {
+        ListTag entityList = getEntitiesForWrite(itemStack);
 
-        if(ConfigManager.allEntitiesAllowed()) {
-            return baseCheck;
+        repairContents(level, itemStack, entityList);
+
+        List<CompoundTag> entries = new ArrayList<>(entityList.size());
+
+        // Released newest first, the same order single releases use.
+        for(int i = entityList.size() - 1; i >= 0; i--) {
+            entries.add(entityList.getCompound(i));
+        }
+
+        entityList.clear();
+
+        LassoContents.of(itemStack).replaceAll(List.of());
+
+        saveEntities(itemStack, entityList);
+
+        markContentsChanged(level, itemStack.getOrCreateTag());
+
+        List<BlockPos> releasePositions = findReleasePositions(level, position, entries.size());
+
+        int released = 0;
+
+        int missing = 0;
+
+        for(CompoundTag entry : entries) {
+            if(PayloadStore.isMissing(level, entry)) {
+                missing++;
+
+                continue;
+            }
+
+            BlockPos releasePosition = releasePositions.get(released % releasePositions.size());
+
+            if(releaseEntity(level, player.getUUID(), entry, releasePosition, config,
+                             () -> chargeRelease(level, player, itemStack, releasePosition, config))) {
+                released++;
+            }
         }
 
-        boolean whitelistCheck = false;
+        if(missing > 0) {
+            player.displayClientMessage(Component.translatable("emeraldlasso.messages.payload_missing"), true);
+        }
+
+        return released == 0 ? InteractionResult.FAIL : InteractionResult.SUCCESS;
+    }
+
+    /**
+     * This method is responsible for taking entities out
+     * of a lasso without releasing them, so that they can
+     * be kept somewhere else. The newest entities are taken
+     * first, the same order they would be released in.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param max The most entities to take.
+     *
+     * @return The saved NBT of each entity taken. Entities whose payload no longer exists are left out.
+     */
+    public static List<CompoundTag> takeEntities(ServerLevel level, ItemStack itemStack, int max) {
+        int count = Math.min(max, getStoredCount(itemStack));
 
-        if(entityWhitelist.isEmpty()) {
-            entityWhitelist = ConfigManager.getEntityWhiteList();
+        if(count <= 0) {
+            return List.of();
         }
 
-        for(EntityType<?> type : entityWhitelist) {
-            if(target.getType().equals(type)) {
-                whitelistCheck = true;
+        ListTag entityList = getEntitiesForWrite(itemStack);
+
+        repairContents(level, itemStack, entityList);
+
+        LassoContents contents = LassoContents.of(itemStack);
 
+        List<CompoundTag> entityTags = new ArrayList<>(count);
+
+        for(int i = 0; i < count && !entityList.isEmpty(); i++) {
+            CompoundTag entityTag = PayloadStore.retrieve(level, (CompoundTag) entityList.remove(entityList.size() - 1));
+
+            contents.removeLast();
+
+            if(entityTag != null) {
+                entityTags.add(entityTag);
+            }
+        }
+
+        saveEntities(itemStack, entityList);
+
+        markContentsChanged(level, itemStack.getOrCreateTag());
+
+        return entityTags;
+    }
+
+    /**
+     * This method is responsible for storing an entity
+     * which has already been saved, such as one read
+     * from a herd file, in a lasso. The same capacity and
+     * size rules as a capture apply.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @param config The config snapshot the import was started with.
+     *
+     * @return {@code true} if the entity was stored {@code false} if it does not fit in the lasso.
+     */
+    public static boolean insertEntity(ServerLevel level, ItemStack itemStack, CompoundTag entityTag, ConfigSnapshot config) {
+        if(isFull(itemStack, getStoredCount(itemStack), config)) {
+            return false;
+        }
+
+        ContentsHeader.Entry contentsEntry = ContentsHeader.describe(entityTag);
+
+        CompoundTag payload = PayloadStore.encode(entityTag);
+
+        int payloadBytes = PayloadCodec.serializedSize(payload);
+
+        if(config.maxPayloadBytes() > 0 && payloadBytes > config.maxPayloadBytes()) {
+            return false;
+        }
+
+        int cost = EntityType.byString(contentsEntry.typeId())
+                             .map(entityType -> ConfigManager.getCaptureWeights().getCost(entityType, payloadBytes))
+                             .orElse(0);
+
+        ListTag entityList = getEntitiesForWrite(itemStack);
+
+        repairContents(level, itemStack, entityList);
+
+        LassoContents contents = LassoContents.of(itemStack);
+
+        if(config.capacityByteBudget() > 0 && contents.getUsedBytes() + cost > config.capacityByteBudget()) {
+            return false;
+        }
+
+        entityList.add(PayloadStore.store(level, payload));
+
+        contents.append(contentsEntry.withCost(cost));
+
+        saveEntities(itemStack, entityList);
+
+        markContentsChanged(level, itemStack.getOrCreateTag());
+
+        return true;
+    }
+
+    /**
+     * This method is responsible for returning the entries
+     * stored in a lasso without changing it, oldest first.
+     * The entries are still encoded, {@link PayloadStore#peek(ServerLevel, CompoundTag)}
+     * turns each one back into the NBT of the entity.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @return A copy of the list of entries, the entries themselves are shared and must not be modified.
+     */
+    public static List<CompoundTag> getStoredEntries(ItemStack itemStack) {
+        ListTag entityList = readEntities(itemStack);
+
+        List<CompoundTag> entries = new ArrayList<>(entityList.size());
+
+        for(int i = 0; i < entityList.size(); i++) {
+            entries.add(entityList.getCompound(i));
+        }
+
+        return entries;
+    }
+
+    /**
+     * This method is responsible for finding the spots
+     * around a position that entities can be released at.
+     * A spot is free if it and the block above it have no
+     * collision and it has a solid floor. Closer spots come first.
+     *
+     * @param level The level to search.
+     *
+     * @param origin The position next to the clicked face.
+     *
+     * @param wanted How many spots are wanted.
+     *
+     * @return The spots found, this always contains at least the origin.
+     */
+    public static List<BlockPos> findReleasePositions(ServerLevel level, BlockPos origin, int wanted) {
+        List<BlockPos> offsets = new ArrayList<>();
+
+        for(int x = -RELEASE_SPREAD_RADIUS; x <= RELEASE_SPREAD_RADIUS; x++) {
+            for(int z = -RELEASE_SPREAD_RADIUS; z <= RELEASE_SPREAD_RADIUS; z++) {
+                if(x != 0 || z != 0) {
+                    offsets.add(new BlockPos(x, 0, z));
+                }
+            }
+        }
+
+        offsets.sort(Comparator.comparingInt(offset -> offset.getX() * offset.getX() + offset.getZ() * offset.getZ()));
+
+        List<BlockPos> releasePositions = new ArrayList<>(wanted);
+
+        releasePositions.add(origin);
+
+        for(BlockPos offset : offsets) {
+            if(releasePositions.size() >= wanted) {
                 break;
             }
+
+            BlockPos candidate = origin.offset(offset);
+
+            boolean free = level.getBlockState(candidate).getCollisionShape(level, candidate).isEmpty()
+                           && level.getBlockState(candidate.above()).getCollisionShape(level, candidate.above()).isEmpty()
+                           && level.getBlockState(candidate.below()).isFaceSturdy(level, candidate.below(), Direction.UP);
+
+            if(free) {
+                releasePositions.add(candidate);
+            }
+        }
+
+        return releasePositions;
+    }
+
+    /**
+     * This method is responsible for releasing an entry
+     * taken from the lasso at the given position. If the
+     * release queue is enabled the entity is only queued
+     * and will be spawned within the next few ticks.
+     *
+     * @param level The level the entity is being released in.
+     *
+     * @param actorId The UUID of the player releasing the entity, {@code null} if it is not a player.
+     *
+     * @param entry The entry taken from the lasso.
+     *
+     * @param position The position to release the entity at.
+     *
+     * @param config The config snapshot the release was started with.
+     *
+     * @return {@code true} if the entity was released or queued {@code false} if it could not be loaded.
+     */
+    public static boolean releaseEntity(ServerLevel level, @Nullable UUID actorId, CompoundTag entry, BlockPos position, ConfigSnapshot config) {
+        return releaseEntity(level, actorId, entry, position, config, null);
+    }
+
+    /**
+     * This method is responsible for releasing an entry
+     * taken from a lasso, and running something once the
+     * entity is actually in the level.
+     *
+     * @param level The level the entity is being released in.
+     *
+     * @param actorId The UUID of the player releasing the entity, {@code null} if it is not a player.
+     *
+     * @param entry The entry taken from the lasso.
+     *
+     * @param position The position to release the entity at.
+     *
+     * @param config The config snapshot the release was started with.
+     *
+     * @param onReleased Run once the entity has been added to the level, which is a later tick if it is queued.
+     *
+     * @return {@code true} if the entity was released or queued {@code false} if it could not be loaded.
+     */
+    private static boolean releaseEntity(ServerLevel level, @Nullable UUID actorId, CompoundTag entry, BlockPos position, ConfigSnapshot config, @Nullable Runnable onReleased) {
+        double x = position.getX() + 0.5;
+
+        double z = position.getZ() + 0.5;
+
+        if(config.releaseQueueEnabled()) {
+            ReleaseQueue.enqueue(level, actorId, entry, x, position.getY(), z, onReleased);
+
+            return true;
+        }
+
+        if(!spawnStoredEntity(level, actorId, entry, x, position.getY(), z)) {
+            return false;
+        }
+
+        if(onReleased != null) {
+            onReleased.run();
+        }
+
+        return true;
+    }
+
+    /**
+     * This method is responsible for turning an entry
+     * taken from the lasso back into an entity and adding
+     * it to the level.
+     *
+     * @param level The level the entity is being released in.
+     *
+     * @param actorId The UUID of the player releasing the entity, {@code null} if it is not a player.
+     *
+     * @param entry The entry taken from the lasso.
+     *
+     * @param x The x coordinate to release the entity at.
+     *
+     * @param y The y coordinate to release the entity at.
+     *
+     * @param z The z coordinate to release the entity at.
+     *
+     * @return {@code true} if the entity was added {@code false} if it could not be loaded or the level refused it,
+     *         for example because an entity with the same UUID already exists.
+     */
+    static boolean spawnStoredEntity(ServerLevel level, @Nullable UUID actorId, CompoundTag entry, double x, double y, double z) {
+        ProfilerFiller profiler = level.getProfiler();
+
+        profiler.push(LassoMetrics.RELEASE_SECTION);
+
+        ReleaseEvent releaseEvent = new ReleaseEvent();
+
+        releaseEvent.begin();
+
+        Entity entityToLoad = null;
+
+        CompoundTag entityTag = PayloadStore.retrieve(level, entry);
+
+        if(entityTag != null) {
+            // Entities stored before a Minecraft update are only upgraded now, when they are actually needed.
+            entityTag = PayloadUpgrader.upgrade(level.getServer().getFixerUpper(), entityTag);
+
+            long loadStart = System.nanoTime();
+
+            entityToLoad = EntityType.loadEntityRecursive(entityTag, level, entity -> entity);
+
+            LassoMetrics.LOAD_TIMER.record(loadStart);
+        }
+
+        if(entityToLoad != null) {
+            entityToLoad.setPos(x, y, z);
+        }
+
+        boolean released = entityToLoad != null && level.tryAddFreshEntityWithPassengers(entityToLoad);
+
+        if(released) {
+            AuditLog.record(AuditLog.Action.RELEASE, actorId, entityToLoad);
+        }
+
+        LassoMetrics.recordRelease(released);
+
+        releaseEvent.end();
+
+        if(releaseEvent.shouldCommit()) {
+            releaseEvent.entityType = entry.getString(NBTIdentifiers.ENTITY_ID);
+            releaseEvent.succeeded = released;
+
+            releaseEvent.commit();
+        }
+
+        profiler.pop();
+
+        return released;
+    }
+
+    /**
+     * This method is responsible for capturing every valid
+     * entity around the target in one go, up to the space
+     * left in the lasso.
+     *
+     * The entities are found with a single area query and the
+     * lasso is only written to once, however many are captured.
+     *
+     * @param level The level the player is in.
+     *
+     * @param player The player using the lasso.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @param targetEntity The entity the player clicked on.
+     *
+     * @param config The config snapshot the capture was started with.
+     */
+    private static void captureNearby(ServerLevel level, Player player, ItemStack itemStack, Entity targetEntity, ConfigSnapshot config) {
+        int space = Math.min(getMaxEntities(config) - getStoredCount(itemStack), config.batchCaptureMax());
+
+        if(space <= 0 || isFull(itemStack, getStoredCount(itemStack), config)) {
+            return;
+        }
+
+        AABB area = targetEntity.getBoundingBox().inflate(config.batchCaptureRadius());
+
+        CaptureRules captureRules = ConfigManager.getCaptureRules();
+
+        List<LivingEntity> candidates = level.getEntitiesOfClass(LivingEntity.class, area,
+                entity -> !(entity instanceof Player) && captureRules.test(entity) == null);
+
+        if(candidates.isEmpty()) {
+            return;
+        }
+
+        // Closest to what the player clicked on is captured first when there is not enough space for everything.
+        candidates.sort(Comparator.comparingDouble(entity -> entity.distanceToSqr(targetEntity)));
+
+        ListTag entityList = getEntitiesForWrite(itemStack);
+
+        boolean migrated = PayloadStore.migrate(level, entityList);
+
+        repairContents(level, itemStack, entityList);
+
+        LassoContents contents = LassoContents.of(itemStack);
+
+        int stored = 0;
+
+        for(int i = 0; i < candidates.size() && stored < space; i++) {
+            RejectReason rejectReason = storeEntity(level, player.getUUID(), contents, entityList, candidates.get(i), config);
+
+            // A candidate too big for the bytes left does not stop a smaller one after it from fitting.
+            if(rejectReason == null) {
+                stored++;
+            } else {
+                LassoMetrics.recordRejection(rejectReason, candidates.get(i));
+            }
+        }
+
+        if(stored == 0 && !migrated) {
+            return;
+        }
+
+        saveEntities(itemStack, entityList);
+
+        markContentsChanged(level, itemStack.getOrCreateTag());
+
+        if(stored > 0) {
+            level.playSound(null, player.getOnPos(), SoundEvents.ENDERMAN_TELEPORT, SoundSource.AMBIENT, 0.5f, 1f);
+        }
+    }
+
+    /**
+     * This method is responsible for storing an entity
+     * in the lasso and removing it from the world.
+     *
+     * The caller is responsible for saving the entity list and
+     * marking the contents as changed afterwards.
+     *
+     * @param level The level the entity is in.
+     *
+     * @param actorId The UUID of the player capturing the entity, {@code null} if it is not a player.
+     *
+     * @param contents The decoded contents of the lasso.
+     *
+     * @param entityList The list of entities stored in the lasso.
+     *
+     * @param targetEntity The entity to store.
+     *
+     * @param config The config snapshot the capture was started with.
+     *
+     * @return {@code null} if the entity was stored, otherwise the reason it was not. Either it is over the
+     *         maximum size or does not fit in the byte budget left.
+     */
+    @Nullable
+    private static RejectReason storeEntity(ServerLevel level, @Nullable UUID actorId, LassoContents contents, ListTag entityList, Entity targetEntity, ConfigSnapshot config) {
+        ProfilerFiller profiler = level.getProfiler();
+
+        profiler.push(LassoMetrics.CAPTURE_SECTION);
+
+        CaptureEvent captureEvent = new CaptureEvent();
+
+        captureEvent.begin();
+
+        CompoundTag entityTag = new CompoundTag();
+
+        long saveStart = System.nanoTime();
+
+        // Saved as a passenger so an entity that is riding something still saves, and its riders are left out
+        // because they stay in the world. Nothing is dismounted until the entity is known to fit.
+        targetEntity.saveAsPassenger(entityTag);
+
+        entityTag.remove(NBTIdentifiers.PASSENGERS);
+
+        LassoMetrics.SAVE_TIMER.record(saveStart);
+
+        PayloadUpgrader.stamp(entityTag);
+
+        ContentsHeader.Entry contentsEntry = ContentsHeader.describe(targetEntity, entityTag);
+
+        if(config.leanCaptureEnabled()) {
+            ConfigManager.getCaptureProfile().apply(entityTag, targetEntity.getType());
+        }
+
+        CompoundTag payload = PayloadStore.encode(entityTag);
+
+        int payloadBytes = PayloadCodec.serializedSize(payload);
+
+        // The size can only be known once the entity is saved, so this is the last rule checked.
+        if(config.maxPayloadBytes() > 0 && payloadBytes > config.maxPayloadBytes()) {
+            profiler.pop();
+
+            return RejectReason.PAYLOAD_SIZE;
         }
 
-        return baseCheck && whitelistCheck;
+        // The cost is kept in the header, so checking the budget never serializes the stored entities again.
+        int cost = ConfigManager.getCaptureWeights().getCost(targetEntity.getType(), payloadBytes);
+
+        if(config.capacityByteBudget() > 0 && contents.getUsedBytes() + cost > config.capacityByteBudget()) {
+            profiler.pop();
+
+            return RejectReason.CAPACITY;
+        }
+
+        targetEntity.stopRiding();
+
+        targetEntity.ejectPassengers();
+
+        entityList.add(PayloadStore.store(level, payload));
+
+        AuditLog.record(AuditLog.Action.CAPTURE, actorId, targetEntity);
+
+        targetEntity.remove(RemovalReason.DISCARDED);
+
+        contents.append(contentsEntry.withCost(cost));
+
+        LassoMetrics.recordCapture(payloadBytes);
+
+        captureEvent.end();
+
+        if(captureEvent.shouldCommit()) {
+            captureEvent.entityType = entityTag.getString(NBTIdentifiers.ENTITY_ID);
+            captureEvent.payloadBytes = payloadBytes;
+
+            captureEvent.commit();
+        }
+
+        profiler.pop();
+
+        return null;
+    }
+
+    /**
+     * Clients only need the contents header, so the stored entities
+     * are left out of the tag that is sent to them. The entities of
+     * lassos held by creative players are remembered by contents ID,
+     * so a creative mode client sending the stack back does not wipe them.
+     *
+     * @see EmeraldLassoItem#readShareTag(ItemStack, CompoundTag)
+     * @see EmeraldLassoItem#inventoryTick(ItemStack, Level, Entity, int, boolean)
+     */
+    @Nullable
+    @Override
+    public CompoundTag getShareTag(ItemStack itemStack) {
+        CompoundTag stackTag = itemStack.getTag();
+
+        if(stackTag == null
+           || !stackTag.contains(NBTIdentifiers.ENTITIES, CompoundTag.TAG_LIST)
+           || !stackTag.hasUUID(NBTIdentifiers.CONTENTS_ID)
+           || !ContentsHeader.isPresent(stackTag)) {
+            return stackTag;
+        }
+
+        // A shallow copy is enough, the stack being sent is already a private copy owned by the packet.
+        CompoundTag shareTag = new CompoundTag();
+
+        for(String key : stackTag.getAllKeys()) {
+            if(!key.equals(NBTIdentifiers.ENTITIES)) {
+                shareTag.put(key, stackTag.get(key));
+            }
+        }
+
+        return shareTag;
+    }
+
+    @Override
+    public void readShareTag(ItemStack itemStack, @Nullable CompoundTag shareTag) {
+        if(shareTag != null
+           && EffectiveSide.get().isServer()
+           && !shareTag.contains(NBTIdentifiers.ENTITIES, CompoundTag.TAG_LIST)
+           && shareTag.hasUUID(NBTIdentifiers.CONTENTS_ID)) {
+            ListTag entityList = ShareTagCache.recall(shareTag.getUUID(NBTIdentifiers.CONTENTS_ID));
+
+            if(entityList != null) {
+                shareTag.put(NBTIdentifiers.ENTITIES, entityList);
+            } else {
+                // Never held by a creative player on this server, so the summary describes entities it does not have.
+                LOGGER.warn("A client sent back a lasso whose stored entities are not known, its contents are cleared");
+
+                shareTag.remove(ContentsHeader.CONTENTS);
+                shareTag.remove(NBTIdentifiers.CONTENTS_ID);
+            }
+        }
+
+        super.readShareTag(itemStack, shareTag);
+    }
+
+    /**
+     * The entities of lassos held by creative players are remembered
+     * every tick, since those are the only players who can send a stack
+     * back, and vault entries are marked as in use every so often.
+     */
+    @Override
+    public void inventoryTick(ItemStack itemStack, Level level, Entity entity, int slotId, boolean isSelected) {
+        if(level.isClientSide() || !itemStack.hasTag()) {
+            return;
+        }
+
+        CompoundTag stackTag = itemStack.getTag();
+
+        if(entity instanceof ServerPlayer player && player.isCreative()
+           && stackTag.hasUUID(NBTIdentifiers.CONTENTS_ID) && stackTag.contains(NBTIdentifiers.ENTITIES, CompoundTag.TAG_LIST)) {
+            ShareTagCache.remember(player.getUUID(), stackTag.getUUID(NBTIdentifiers.CONTENTS_ID), stackTag.getList(NBTIdentifiers.ENTITIES, CompoundTag.TAG_COMPOUND));
+        }
+
+        if(level.getGameTime() % VAULT_TOUCH_INTERVAL != 0) {
+            return;
+        }
+
+        if(ConfigManager.getVaultOrphanExpiryDays() > 0) {
+            PayloadStore.touch((ServerLevel) level, readEntities(itemStack));
+        }
+    }
+
+    @Override
+    public void onDestroyed(ItemEntity itemEntity) {
+        if(itemEntity.getLevel() instanceof ServerLevel serverLevel && itemEntity.getItem().hasTag()) {
+            discardEntities(serverLevel, readEntities(itemEntity.getItem()));
+        }
+    }
+
+    /**
+     * This method is responsible for throwing away
+     * every entity stored in a lasso which can no
+     * longer be used.
+     *
+     * @param level The level the lasso was in.
+     *
+     * @param entityList The list of entities stored in the lasso.
+     */
+    private static void discardEntities(ServerLevel level, ListTag entityList) {
+        for(int i = 0; i < entityList.size(); i++) {
+            PayloadStore.discard(level, entityList.getCompound(i));
+        }
+    }
+
+    /**
+     * This method is responsible for describing the
+     * entities stored in a lasso, from its decoded
+     * contents. Captures the client has predicted are
+     * added after the stored entities.
+     *
+     * @param itemStack The item stack to describe.
+     *
+     * @return The entries describing the stored entities.
+     */
+    private static List<ContentsHeader.Entry> getContents(ItemStack itemStack) {
+        List<ContentsHeader.Entry> storedEntries = LassoContents.of(itemStack).getEntries();
+
+        List<ContentsHeader.Entry> predictedEntries = CapturePrediction.getPredictedEntries(itemStack);
+
+        if(predictedEntries.isEmpty()) {
+            return storedEntries;
+        }
+
+        List<ContentsHeader.Entry> entries = new ArrayList<>(storedEntries);
+
+        entries.addAll(predictedEntries);
+
+        return entries;
+    }
+
+    /**
+     * This method is responsible for rebuilding the
+     * header of a lasso if it is missing or no longer
+     * matches the stored entities.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param itemStack The respective item stack.
+     *
+     * @param entityList The list of entities stored in the lasso.
+     */
+    private static void repairContents(ServerLevel level, ItemStack itemStack, ListTag entityList) {
+        CompoundTag stackTag = itemStack.getOrCreateTag();
+
+        LassoContents contents = LassoContents.of(itemStack);
+
+        if(ContentsHeader.isPresent(stackTag) && contents.size() == entityList.size()) {
+            return;
+        }
+
+        List<ContentsHeader.Entry> entries = new ArrayList<>(entityList.size());
+
+        CaptureWeights weights = ConfigManager.getCaptureWeights();
+
+        for(int i = 0; i < entityList.size(); i++) {
+            CompoundTag entityTag = PayloadStore.peek(level, entityList.getCompound(i));
+
+            CompoundTag describedTag = entityTag == null ? entityList.getCompound(i) : entityTag;
+
+            ContentsHeader.Entry entry = ContentsHeader.describe(describedTag);
+
+            // The stored payload size is not known any more, so the decoded size is used as an upper estimate.
+            int cost = EntityType.byString(entry.typeId())
+                                 .map(entityType -> weights.getCost(entityType, PayloadCodec.serializedSize(describedTag)))
+                                 .orElse(0);
+
+            entries.add(entry.withCost(cost));
+        }
+
+        contents.replaceAll(entries);
+
+        contents.save();
+
+        markContentsChanged(level, stackTag);
+    }
+
+    /**
+     * This method is responsible for giving the
+     * contents of a lasso a new contents ID. This
+     * must be called whenever the stored entities change.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param stackTag The tag of the respective item stack.
+     */
+    private static void markContentsChanged(ServerLevel level, CompoundTag stackTag) {
+        if(stackTag.hasUUID(NBTIdentifiers.CONTENTS_ID)) {
+            ShareTagCache.forget(stackTag.getUUID(NBTIdentifiers.CONTENTS_ID));
+        }
+
+        stackTag.putUUID(NBTIdentifiers.CONTENTS_ID, Mth.createInsecureUUID(level.getRandom()));
+    }
+
+    /**
+     * This method is responsible for returning how
+     * many entities are stored in a lasso without
+     * touching the stored entities themselves.
+     *
+     * This never creates or writes NBT, so it is safe to call while rendering.
+     *
+     * @param itemStack The respective item stack.
+     *
+     * @return The number of stored entities.
+     */
+    static int getStoredCount(ItemStack itemStack) {
+        return LassoContents.of(itemStack).size();
     }
 
     /**
      * This method will retrieve the entity list for
-     * a given item stack. If it does not
+     * a given item stack without changing it. If it does
+     * not have a list then a detached empty one is returned,
+     * modifying it will not affect the item stack.
+     *
+     * This never creates or writes NBT, so it is safe to call while rendering.
+     *
+     * @param itemStack The item stack to get the entity list from.
+     *
+     * @return The list of entities stored in the item stack.
+     */
+    private static ListTag readEntities(ItemStack itemStack) {
+        CompoundTag stackTag = itemStack.getTag();
+
+        if(stackTag == null) {
+            return new ListTag();
+        }
+
+        return stackTag.getList(NBTIdentifiers.ENTITIES, CompoundTag.TAG_COMPOUND);
+    }
+
+    /**
+     * This method will retrieve the entity list for
+     * a given item stack so that it can be changed. If it does not
      * already have a list then an empty one will
      * be stored.
      *
+     * This should only be used on the server when an entity is captured or released.
+     *
      * @param itemStack The item stack to get the entity list from.
      *
      * @return The list of entities stored in the item stack.
      */
-    private static ListTag getEntities(ItemStack itemStack) {
+    private static ListTag getEntitiesForWrite(ItemStack itemStack) {
         CompoundTag stackTag = itemStack.getOrCreateTag();
 
         if(stackTag.contains(NBTIdentifiers.ENTITIES, CompoundTag.TAG_LIST)) {
@@ -262,7 +1267,8 @@ public class EmeraldLassoItem extends Item {
     
     /**
      * This method is responsible for saving
-     * an entity list for a given item stack.
+     * an entity list for a given item stack,
+     * along with the header entries that changed.
      *
      * @param itemStack The respective item stack.
      *
@@ -271,7 +1277,12 @@ public class EmeraldLassoItem extends Item {
     private static void saveEntities(ItemStack itemStack, ListTag entityList) {
         CompoundTag stackTag = itemStack.getOrCreateTag();
 
-        stackTag.put(NBTIdentifiers.ENTITIES, entityList);
+        // The list is normally the one already in the tag and was changed in place.
+        if(stackTag.get(NBTIdentifiers.ENTITIES) != entityList) {
+            stackTag.put(NBTIdentifiers.ENTITIES, entityList);
+        }
+
+        LassoContents.of(itemStack).save();
     }
 
     /**
@@ -283,6 +1294,70 @@ public class EmeraldLassoItem extends Item {
          * to the list of entities that are stored in an item stack.
          */
         public static final String ENTITIES = "entities";
+
+        /**
+         * The key identifier for the contents ID. This changes every time the
+         * stored entities change and is used to match up the tag sent to clients.
+         */
+        public static final String CONTENTS_ID = "contents_id";
+
+        /**
+         * The key identifier vanilla uses for the entity type.
+         */
+        public static final String ENTITY_ID = "id";
+
+        /**
+         * The key identifier vanilla uses for the entities riding an entity.
+         */
+        public static final String PASSENGERS = "Passengers";
+    }
+
+    /**
+     * An inner class for listening to game events which affect stored entities.
+     */
+    @Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+    public static class ForgeEvents {
+
+        /**
+         * How far below the bottom of the level vanilla removes entities as having fallen into the void.
+         */
+        private static final int VOID_DEPTH = 64;
+
+        /**
+         * A despawning lasso is lost for good, so anything it held in the vault is too.
+         */
+        @SubscribeEvent(priority = EventPriority.LOWEST)
+        public static void onItemExpire(ItemExpireEvent event) {
+            ItemEntity itemEntity = event.getEntity();
+
+            if(itemEntity.getItem().getItem() instanceof EmeraldLassoItem) {
+                ((EmeraldLassoItem) itemEntity.getItem().getItem()).onDestroyed(itemEntity);
+            }
+        }
+
+        /**
+         * A lasso that falls into the void or is removed with /kill is
+         * lost for good as well. Item entities are also discarded when
+         * they are picked up or pulled into a hopper, so only a discard
+         * below the void line counts.
+         */
+        @SubscribeEvent
+        public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+            if(!(event.getEntity() instanceof ItemEntity itemEntity)
+               || !(itemEntity.getItem().getItem() instanceof EmeraldLassoItem lasso)
+               || itemEntity.getRemovalReason() == null) {
+                return;
+            }
+
+            boolean killed = itemEntity.getRemovalReason() == Entity.RemovalReason.KILLED;
+
+            boolean fellIntoVoid = itemEntity.getRemovalReason() == Entity.RemovalReason.DISCARDED
+                                   && itemEntity.getY() < itemEntity.getLevel().getMinBuildHeight() - VOID_DEPTH;
+
+            if(killed || fellIntoVoid) {
+                lasso.onDestroyed(itemEntity);
+            }
+        }
     }
 
 }
@@ -0,0 +1,327 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class is responsible for holding a decoded view
+ * of the header of a single lasso, attached to its item
+ * stack as a capability.
+ *
+ * The header is only decoded the first time it is needed, and is decoded
+ * again if the stack's NBT is replaced from outside, for example by the
+ * server syncing the stack or a command. Changes are made to the decoded
+ * entries and only the entries that changed are written back to the NBT
+ * when the lasso is saved, so repeated captures and releases never walk or
+ * rebuild the whole header.
+ *
+ * Nothing is stored by the capability itself, the stack's NBT stays the
+ * only copy of the contents, so copies of the stack simply decode their own.
+ *
+ * @see EmeraldLassoItem#initCapabilities(ItemStack, CompoundTag)
+ */
+public final class LassoContents {
+
+    /**
+     * Responsible for storing the capability the decoded contents are attached with.
+     */
+    public static final Capability<LassoContents> CAPABILITY = CapabilityManager.get(new CapabilityToken<>() {});
+
+    /**
+     * Marks that every entry in the NBT is up to date.
+     */
+    private static final int CLEAN = Integer.MAX_VALUE;
+
+    private final ItemStack itemStack;
+
+    /**
+     * Responsible for storing the stack tag the entries were decoded from, used to notice it being replaced.
+     */
+    @Nullable
+    private CompoundTag boundTag;
+
+    /**
+     * Responsible for storing the header list the entries were decoded from, used to notice it being replaced.
+     */
+    @Nullable
+    private Tag boundHeader;
+
+    /**
+     * Responsible for storing the decoded entries, {@code null} until they are first needed.
+     */
+    @Nullable
+    private List<ContentsHeader.Entry> entries;
+
+    /**
+     * Responsible for storing a read only view of the entries, so one is not made on every read.
+     */
+    private List<ContentsHeader.Entry> entriesView = List.of();
+
+    /**
+     * Responsible for storing the index of the first entry that has changed since the
+     * header was last written, every entry from there onwards is written on save.
+     */
+    private int firstDirtyIndex = CLEAN;
+
+    private LassoContents(ItemStack itemStack) {
+        this.itemStack = itemStack;
+    }
+
+    /**
+     * This method is responsible for returning the
+     * decoded contents of a lasso.
+     *
+     * @param itemStack The lasso item stack.
+     *
+     * @return The decoded contents attached to the stack.
+     */
+    public static LassoContents of(ItemStack itemStack) {
+        // Only missing if capabilities were not attached, the detached view still reads and writes the stack.
+        return itemStack.getCapability(CAPABILITY).orElseGet(() -> new LassoContents(itemStack));
+    }
+
+    /**
+     * This method is responsible for returning the
+     * entries describing the stored entities.
+     *
+     * This never creates or writes NBT, so it is safe to call while rendering.
+     *
+     * @return A read only view of the entries, in the order the entities were stored.
+     */
+    public List<ContentsHeader.Entry> getEntries() {
+        validate();
+
+        return entriesView;
+    }
+
+    /**
+     * This method is responsible for returning how
+     * many entities are stored in the lasso.
+     *
+     * This never creates or writes NBT, so it is safe to call while rendering.
+     *
+     * @return The number of stored entities.
+     */
+    public int size() {
+        return getEntries().size();
+    }
+
+    /**
+     * This method is responsible for returning how much
+     * of the lasso's byte budget the stored entities use.
+     *
+     * This never creates or writes NBT, so it is safe to call while rendering.
+     *
+     * @return The total weighted size in bytes of the stored entities.
+     */
+    public long getUsedBytes() {
+        long usedBytes = 0;
+
+        for(ContentsHeader.Entry entry : getEntries()) {
+            usedBytes += entry.cost();
+        }
+
+        return usedBytes;
+    }
+
+    /**
+     * This method is responsible for adding an
+     * entry to the end of the contents.
+     *
+     * @param entry The entry describing the stored entity.
+     */
+    public void append(ContentsHeader.Entry entry) {
+        List<ContentsHeader.Entry> decoded = decodedForWrite();
+
+        markDirty(decoded.size());
+
+        decoded.add(entry);
+    }
+
+    /**
+     * This method is responsible for removing the
+     * last entry from the contents.
+     */
+    public void removeLast() {
+        List<ContentsHeader.Entry> decoded = decodedForWrite();
+
+        if(!decoded.isEmpty()) {
+            decoded.remove(decoded.size() - 1);
+
+            markDirty(decoded.size());
+        }
+    }
+
+    /**
+     * This method is responsible for replacing every
+     * entry in the contents.
+     *
+     * @param replacement The entries describing the stored entities.
+     */
+    public void replaceAll(List<ContentsHeader.Entry> replacement) {
+        List<ContentsHeader.Entry> decoded = decodedForWrite();
+
+        decoded.clear();
+
+        decoded.addAll(replacement);
+
+        markDirty(0);
+    }
+
+    /**
+     * This method is responsible for writing the entries
+     * that changed back to the header. Entries before the
+     * first change are left untouched.
+     */
+    public void save() {
+        if(firstDirtyIndex == CLEAN || entries == null) {
+            return;
+        }
+
+        CompoundTag stackTag = itemStack.getOrCreateTag();
+
+        ListTag header = stackTag.getList(ContentsHeader.CONTENTS, Tag.TAG_COMPOUND);
+
+        int keptSize = Math.min(firstDirtyIndex, header.size());
+
+        while(header.size() > keptSize) {
+            header.remove(header.size() - 1);
+        }
+
+        for(int i = keptSize; i < entries.size(); i++) {
+            header.add(entries.get(i).save());
+        }
+
+        // Only needed when the header did not exist yet, otherwise it was changed in place.
+        if(stackTag.get(ContentsHeader.CONTENTS) != header) {
+            stackTag.put(ContentsHeader.CONTENTS, header);
+        }
+
+        bind(stackTag);
+
+        firstDirtyIndex = CLEAN;
+    }
+
+    private void markDirty(int index) {
+        firstDirtyIndex = Math.min(firstDirtyIndex, index);
+    }
+
+    private List<ContentsHeader.Entry> decodedForWrite() {
+        // The tag is made up front so that making it does not look like the NBT being replaced.
+        itemStack.getOrCreateTag();
+
+        validate();
+
+        return entries;
+    }
+
+    /**
+     * This method is responsible for decoding the header
+     * again if it has not been decoded yet or the NBT it was
+     * decoded from has been replaced.
+     */
+    private void validate() {
+        CompoundTag stackTag = itemStack.getTag();
+
+        if(entries != null && stackTag == boundTag && (stackTag == null || stackTag.get(ContentsHeader.CONTENTS) == boundHeader)) {
+            return;
+        }
+
+        entries = decode(stackTag);
+
+        entriesView = Collections.unmodifiableList(entries);
+
+        firstDirtyIndex = CLEAN;
+
+        bind(stackTag);
+    }
+
+    private void bind(@Nullable CompoundTag stackTag) {
+        boundTag = stackTag;
+
+        boundHeader = stackTag == null ? null : stackTag.get(ContentsHeader.CONTENTS);
+    }
+
+    /**
+     * Lassos filled before the header existed fall back to
+     * reading the stored entities, until the server repairs them.
+     */
+    private static List<ContentsHeader.Entry> decode(@Nullable CompoundTag stackTag) {
+        if(stackTag == null) {
+            return new ArrayList<>();
+        }
+
+        if(ContentsHeader.isPresent(stackTag)) {
+            return new ArrayList<>(ContentsHeader.read(stackTag));
+        }
+
+        ListTag entityList = stackTag.getList(NBTIdentifiers.ENTITIES, Tag.TAG_COMPOUND);
+
+        List<ContentsHeader.Entry> decoded = new ArrayList<>(entityList.size());
+
+        for(int i = 0; i < entityList.size(); i++) {
+            decoded.add(ContentsHeader.describe(entityList.getCompound(i)));
+        }
+
+        return decoded;
+    }
+
+    /**
+     * An inner class for providing the decoded contents
+     * of a single lasso item stack.
+     */
+    static class Provider implements ICapabilityProvider {
+        private final LazyOptional<LassoContents> contents;
+
+        Provider(ItemStack itemStack) {
+            this.contents = LazyOptional.of(() -> new LassoContents(itemStack));
+        }
+
+        @Override
+        public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> capability, @Nullable Direction side) {
+            return CAPABILITY.orEmpty(capability, contents);
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier for the list of entities stored in a lasso.
+         */
+        public static final String ENTITIES = "entities";
+    }
+
+    /**
+     * An inner class for registering the capability.
+     */
+    @Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+    public static class ModEvents {
+
+        @SubscribeEvent
+        public static void onRegisterCapabilities(RegisterCapabilitiesEvent event) {
+            event.register(LassoContents.class);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.storage.ContentsHeader;
+import net.minecraft.world.inventory.tooltip.TooltipComponent;
+
+import java.util.List;
+
+/**
+ * A record holding the data for the entity preview
+ * shown in the lasso tooltip. The client turns this
+ * into the component which renders the previews.
+ *
+ * @param contents The entries describing the stored entities.
+ */
+public record LassoContentsTooltip(List<ContentsHeader.Entry> contents) implements TooltipComponent {
+}
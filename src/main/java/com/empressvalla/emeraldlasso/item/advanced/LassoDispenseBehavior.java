@@ -0,0 +1,121 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import com.empressvalla.emeraldlasso.metrics.RejectReason;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.BlockSource;
+import net.minecraft.core.Direction;
+import net.minecraft.core.dispenser.DefaultDispenseItemBehavior;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.DispenserBlock;
+import net.minecraft.world.level.block.LevelEvent;
+import net.minecraft.world.phys.AABB;
+
+import java.util.List;
+
+/**
+ * This class is responsible for letting dispensers use
+ * lassos. A dispenser facing an entity captures it, and a
+ * dispenser facing open space releases the most recently
+ * stored entity into it.
+ *
+ * Captures and releases go through the same checks as a player
+ * using the lasso, so the whitelist, health, capacity and durability
+ * rules all still apply. When dispensers are not allowed to use lassos
+ * the lasso is dropped like any other item.
+ *
+ * @see ConfigManager#dispenserLassoEnabled()
+ * @see DispenserThrottle
+ */
+public class LassoDispenseBehavior extends DefaultDispenseItemBehavior {
+
+    /**
+     * Responsible for storing whether the last use captured or released an entity.
+     */
+    private boolean success;
+
+    /**
+     * Responsible for storing whether the last use dropped the lasso like any other item.
+     */
+    private boolean dropped;
+
+    /**
+     * The sound and animation are played once by dispense
+     * after this returns, whichever way the lasso was used.
+     */
+    @Override
+    protected ItemStack execute(BlockSource source, ItemStack itemStack) {
+        ConfigSnapshot config = ConfigManager.getSnapshot();
+
+        dropped = !config.dispenserLassoEnabled();
+
+        if(dropped) {
+            return super.execute(source, itemStack);
+        }
+
+        success = false;
+
+        ServerLevel level = source.getLevel();
+
+        Direction facing = source.getBlockState().getValue(DispenserBlock.FACING);
+
+        BlockPos targetPosition = source.getPos().relative(facing);
+
+        List<LivingEntity> targets = level.getEntitiesOfClass(LivingEntity.class, new AABB(targetPosition),
+                                                              entity -> entity.isAlive() && !(entity instanceof Player));
+
+        // Nothing to capture or release, so the throttle is not spent.
+        if(targets.isEmpty() && (EmeraldLassoItem.getStoredCount(itemStack) == 0 || !isOpenSpace(level, targetPosition))) {
+            return itemStack;
+        }
+
+        if(!DispenserThrottle.tryAcquire(level, source.getPos(), config)) {
+            return itemStack;
+        }
+
+        if(targets.isEmpty()) {
+            success = EmeraldLassoItem.releaseLast(level, null, itemStack, targetPosition, config);
+
+            return itemStack;
+        }
+
+        // The first entity the capture rules accept is taken, once the lasso is full none of the rest will be.
+        for(LivingEntity target : targets) {
+            RejectReason rejectReason = EmeraldLassoItem.captureEntity(level, null, itemStack, target, config);
+
+            if(rejectReason == null) {
+                success = true;
+
+                break;
+            }
+
+            if(rejectReason == RejectReason.CAPACITY) {
+                break;
+            }
+        }
+
+        return itemStack;
+    }
+
+    /**
+     * A dropped lasso clicks like any other dropped item, otherwise
+     * the dispenser clicks on success and fails to fire if nothing happened.
+     */
+    @Override
+    protected void playSound(BlockSource source) {
+        if(dropped) {
+            super.playSound(source);
+        } else {
+            source.getLevel().levelEvent(success ? LevelEvent.SOUND_DISPENSER_DISPENSE : LevelEvent.SOUND_DISPENSER_FAIL, source.getPos(), 0);
+        }
+    }
+
+    private static boolean isOpenSpace(ServerLevel level, BlockPos position) {
+        return level.getBlockState(position).getCollisionShape(level, position).isEmpty();
+    }
+
+}
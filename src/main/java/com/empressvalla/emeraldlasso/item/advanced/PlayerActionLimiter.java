@@ -0,0 +1,157 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.empressvalla.emeraldlasso.config.ConfigSnapshot;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class is responsible for limiting how often each
+ * player can try to capture and release entities, so that
+ * an auto clicker or modified client can not make the server
+ * do an unbounded amount of work.
+ *
+ * Each player has a token bucket per action. A bucket holds up to the
+ * configured burst and refills at the configured rate, every attempt
+ * takes one token and attempts without a token are ignored. Fake players
+ * are controlled by the server itself, so they are never limited.
+ *
+ * @see ConfigManager#getActionRatePerSecond()
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public final class PlayerActionLimiter {
+
+    /**
+     * The number of server ticks in a second.
+     */
+    private static final double TICKS_PER_SECOND = 20.0;
+
+    /**
+     * The fewest server ticks between two messages of the same kind sent to a player.
+     */
+    private static final int MESSAGE_INTERVAL_TICKS = 20;
+
+    /**
+     * Responsible for storing the buckets of every player who has used a lasso. Only accessed from the server thread.
+     */
+    private static final Map<UUID, PlayerLimits> LIMITS = new HashMap<>();
+
+    private PlayerActionLimiter() {
+    }
+
+    /**
+     * This method is responsible for taking a token
+     * from the player's bucket for the given action.
+     *
+     * @param player The player attempting the action. Must be on the server.
+     *
+     * @param action The action being attempted.
+     *
+     * @param config The config snapshot the action was started with.
+     *
+     * @return {@code true} if the action can go ahead {@code false} if the player is over the limit.
+     */
+    public static boolean tryAcquire(Player player, Action action, ConfigSnapshot config) {
+        if(config.actionRatePerSecond() <= 0 || player instanceof FakePlayer) {
+            return true;
+        }
+
+        PlayerLimits limits = LIMITS.computeIfAbsent(player.getUUID(), uuid -> new PlayerLimits());
+
+        Bucket bucket = action == Action.CAPTURE ? limits.capture : limits.release;
+
+        return bucket.tryTake(player.getServer().getTickCount(), config.actionRatePerSecond() / TICKS_PER_SECOND, config.actionBurst());
+    }
+
+    /**
+     * This method is responsible for deciding whether
+     * a message saying an entity could not be stored
+     * should be sent, so that repeated attempts only
+     * send one message a second.
+     *
+     * @param player The player who would receive the message. Must be on the server.
+     *
+     * @return {@code true} if the message should be sent {@code false} if one was sent too recently.
+     */
+    public static boolean shouldSendRejectMessage(Player player) {
+        PlayerLimits limits = LIMITS.computeIfAbsent(player.getUUID(), uuid -> new PlayerLimits());
+
+        int tick = player.getServer().getTickCount();
+
+        if(limits.lastRejectMessageTick >= 0 && tick - limits.lastRejectMessageTick < MESSAGE_INTERVAL_TICKS) {
+            return false;
+        }
+
+        limits.lastRejectMessageTick = tick;
+
+        return true;
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        LIMITS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        LIMITS.clear();
+    }
+
+    /**
+     * An enum of the actions which are limited.
+     */
+    public enum Action {
+        CAPTURE,
+        RELEASE
+    }
+
+    /**
+     * An inner class for holding the limits of a single player.
+     */
+    private static class PlayerLimits {
+        private final Bucket capture = new Bucket();
+
+        private final Bucket release = new Bucket();
+
+        private int lastRejectMessageTick = -1;
+    }
+
+    /**
+     * An inner class for holding a single token bucket.
+     * The bucket is refilled lazily when a token is taken.
+     */
+    private static class Bucket {
+        private double tokens = -1;
+
+        private int lastRefillTick;
+
+        private boolean tryTake(int tick, double tokensPerTick, int burst) {
+            if(tokens < 0) {
+                // A new bucket starts full.
+                tokens = burst;
+            } else {
+                tokens = Math.min(burst, tokens + (tick - lastRefillTick) * tokensPerTick);
+            }
+
+            lastRefillTick = tick;
+
+            if(tokens < 1) {
+                return false;
+            }
+
+            tokens--;
+
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.empressvalla.emeraldlasso.item.advanced;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+/**
+ * This class is responsible for spawning released entities
+ * over the following ticks, so that releasing entities which
+ * are expensive to load does not cause a lag spike.
+ *
+ * Each level spends at most the configured number of microseconds
+ * per tick spawning queued entities. The entries are taken out of the
+ * lasso before they are queued, so the lasso is always up to date even
+ * if the player logs out. The queue is saved with the level, so nothing
+ * queued is lost when the server stops. Chunks are never loaded to spawn
+ * an entity, entities queued for a chunk that is not loaded wait in the
+ * queue until it is loaded again.
+ *
+ * There is one queue per level, saved in the level's data folder.
+ *
+ * @see ConfigManager#releaseQueueEnabled()
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public class ReleaseQueue extends SavedData {
+
+    /**
+     * The name of the file the queue is saved to in the data folder.
+     */
+    private static final String DATA_NAME = EmeraldLasso.MOD_ID + "_release_queue";
+
+    /**
+     * Responsible for storing the queued releases, oldest first. Only accessed from the server thread.
+     */
+    private final ArrayDeque<PendingRelease> queue = new ArrayDeque<>();
+
+    /**
+     * This method is responsible for returning the queue
+     * for the given level, creating it if it does not
+     * exist yet.
+     *
+     * @param level The level to get the queue for.
+     *
+     * @return The queue for the level.
+     */
+    private static ReleaseQueue get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(ReleaseQueue::load, ReleaseQueue::new, DATA_NAME);
+    }
+
+    /**
+     * This method is responsible for queueing an entry
+     * taken from a lasso to be released.
+     *
+     * @param level The level the entity is being released in.
+     *
+     * @param actorId The UUID of the player releasing the entity, {@code null} if it is not a player.
+     *
+     * @param entry The entry taken from the lasso.
+     *
+     * @param x The x coordinate to release the entity at.
+     *
+     * @param y The y coordinate to release the entity at.
+     *
+     * @param z The z coordinate to release the entity at.
+     *
+     * @param onReleased Run once the entity has been added to the level, {@code null} if nothing has to happen then.
+     *                   This is not saved, so it is dropped if the server stops before the entity is released.
+     */
+    public static void enqueue(ServerLevel level, @Nullable UUID actorId, CompoundTag entry, double x, double y, double z, @Nullable Runnable onReleased) {
+        ReleaseQueue releaseQueue = get(level);
+
+        releaseQueue.queue.add(new PendingRelease(actorId, entry, x, y, z, onReleased));
+
+        releaseQueue.setDirty();
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if(event.phase != TickEvent.Phase.END || !(event.level instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        ReleaseQueue releaseQueue = get(serverLevel);
+
+        if(releaseQueue.queue.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + ConfigManager.getSnapshot().releaseQueueBudgetMicros() * 1000L;
+
+        // Every entry is looked at no more than once a tick, so entries waiting for their chunk do not spin.
+        int remaining = releaseQueue.queue.size();
+
+        // At least one entry is handled every tick so the queue always makes progress.
+        do {
+            PendingRelease pendingRelease = releaseQueue.queue.poll();
+
+            if(!pendingRelease.isLoaded(serverLevel)) {
+                releaseQueue.queue.add(pendingRelease);
+
+                continue;
+            }
+
+            pendingRelease.spawn(serverLevel);
+
+            releaseQueue.setDirty();
+        } while(--remaining > 0 && System.nanoTime() < deadline);
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag compoundTag) {
+        ListTag releaseList = new ListTag();
+
+        for(PendingRelease pendingRelease : queue) {
+            releaseList.add(pendingRelease.save());
+        }
+
+        compoundTag.put(NBTIdentifiers.RELEASES, releaseList);
+
+        return compoundTag;
+    }
+
+    private static ReleaseQueue load(CompoundTag compoundTag) {
+        ReleaseQueue releaseQueue = new ReleaseQueue();
+
+        ListTag releaseList = compoundTag.getList(NBTIdentifiers.RELEASES, Tag.TAG_COMPOUND);
+
+        for(int i = 0; i < releaseList.size(); i++) {
+            releaseQueue.queue.add(PendingRelease.load(releaseList.getCompound(i)));
+        }
+
+        return releaseQueue;
+    }
+
+    /**
+     * A record holding an entry waiting to be released.
+     *
+     * @param actorId The UUID of the player releasing the entity, {@code null} if it is not a player.
+     *
+     * @param entry The entry taken from the lasso.
+     *
+     * @param x The x coordinate to release the entity at.
+     *
+     * @param y The y coordinate to release the entity at.
+     *
+     * @param z The z coordinate to release the entity at.
+     *
+     * @param onReleased Run once the entity has been added to the level, {@code null} if nothing has to happen then.
+     */
+    private record PendingRelease(@Nullable UUID actorId, CompoundTag entry, double x, double y, double z, @Nullable Runnable onReleased) {
+
+        private boolean isLoaded(ServerLevel level) {
+            return level.hasChunk(Mth.floor(x) >> 4, Mth.floor(z) >> 4);
+        }
+
+        private void spawn(ServerLevel level) {
+            if(EmeraldLassoItem.spawnStoredEntity(level, actorId, entry, x, y, z) && onReleased != null) {
+                onReleased.run();
+            }
+        }
+
+        private CompoundTag save() {
+            CompoundTag releaseTag = new CompoundTag();
+
+            if(actorId != null) {
+                releaseTag.putUUID(NBTIdentifiers.ACTOR, actorId);
+            }
+
+            releaseTag.put(NBTIdentifiers.ENTRY, entry);
+            releaseTag.putDouble(NBTIdentifiers.X, x);
+            releaseTag.putDouble(NBTIdentifiers.Y, y);
+            releaseTag.putDouble(NBTIdentifiers.Z, z);
+
+            return releaseTag;
+        }
+
+        private static PendingRelease load(CompoundTag releaseTag) {
+            UUID actorId = releaseTag.hasUUID(NBTIdentifiers.ACTOR) ? releaseTag.getUUID(NBTIdentifiers.ACTOR) : null;
+
+            return new PendingRelease(actorId, releaseTag.getCompound(NBTIdentifiers.ENTRY),
+                                      releaseTag.getDouble(NBTIdentifiers.X), releaseTag.getDouble(NBTIdentifiers.Y), releaseTag.getDouble(NBTIdentifiers.Z), null);
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        public static final String RELEASES = "releases";
+
+        public static final String ACTOR = "actor";
+
+        public static final String ENTRY = "entry";
+
+        public static final String X = "x";
+
+        public static final String Y = "y";
+
+        public static final String Z = "z";
+    }
+
+}
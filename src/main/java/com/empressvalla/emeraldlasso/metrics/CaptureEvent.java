@@ -0,0 +1,26 @@
+package com.empressvalla.emeraldlasso.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recorded each time a lasso stores an entity.
+ */
+@Name("emeraldlasso.Capture")
+@Label("Lasso Capture")
+@Category("Emerald Lasso")
+@Description("An entity being stored in an emerald lasso")
+@StackTrace(false)
+public class CaptureEvent extends jdk.jfr.Event {
+
+    @Label("Entity Type")
+    public String entityType;
+
+    @Label("Payload Bytes")
+    @Description("The serialized size of the stored payload")
+    public int payloadBytes;
+
+}
@@ -0,0 +1,141 @@
+package com.empressvalla.emeraldlasso.metrics;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.entity.Entity;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is responsible for counting what the
+ * lasso does on the server, so that admins can see
+ * how much work it is doing with /emeraldlasso stats.
+ *
+ * The counts are kept since the server started or since they were last reset.
+ * The same work is also reported as JFR events and profiler sections.
+ *
+ * @see CaptureEvent
+ * @see ReleaseEvent
+ * @see RejectEvent
+ */
+public final class LassoMetrics {
+
+    /**
+     * Responsible for timing how long saving a captured entity takes.
+     */
+    public static final OperationTimer SAVE_TIMER = new OperationTimer();
+
+    /**
+     * Responsible for timing how long loading a released entity takes.
+     */
+    public static final OperationTimer LOAD_TIMER = new OperationTimer();
+
+    /**
+     * The profiler section the capture work is pushed under.
+     */
+    public static final String CAPTURE_SECTION = "emeraldlasso_capture";
+
+    /**
+     * The profiler section the release work is pushed under.
+     */
+    public static final String RELEASE_SECTION = "emeraldlasso_release";
+
+    private static final LongAdder CAPTURES = new LongAdder();
+
+    private static final LongAdder RELEASES = new LongAdder();
+
+    private static final LongAdder FAILED_RELEASES = new LongAdder();
+
+    private static final LongAdder PAYLOAD_BYTES = new LongAdder();
+
+    private static final Map<RejectReason, LongAdder> REJECTIONS = new EnumMap<>(RejectReason.class);
+
+    static {
+        for(RejectReason reason : RejectReason.values()) {
+            REJECTIONS.put(reason, new LongAdder());
+        }
+    }
+
+    private LassoMetrics() {
+    }
+
+    /**
+     * This method is responsible for recording an
+     * entity being stored in a lasso.
+     *
+     * @param payloadBytes The serialized size of the stored payload.
+     */
+    public static void recordCapture(int payloadBytes) {
+        CAPTURES.increment();
+        PAYLOAD_BYTES.add(payloadBytes);
+    }
+
+    /**
+     * This method is responsible for recording a stored
+     * entity being released.
+     *
+     * @param succeeded {@code true} if the entity was added to the level {@code false} if it could not be loaded.
+     */
+    public static void recordRelease(boolean succeeded) {
+        (succeeded ? RELEASES : FAILED_RELEASES).increment();
+    }
+
+    /**
+     * This method is responsible for recording a lasso
+     * refusing to store an entity.
+     *
+     * @param reason The reason the entity was refused.
+     *
+     * @param target The entity which was refused.
+     */
+    public static void recordRejection(RejectReason reason, Entity target) {
+        REJECTIONS.get(reason).increment();
+
+        RejectEvent event = new RejectEvent();
+
+        if(event.shouldCommit()) {
+            event.entityType = BuiltInRegistries.ENTITY_TYPE.getKey(target.getType()).toString();
+            event.reason = reason.name();
+
+            event.commit();
+        }
+    }
+
+    public static long getCaptures() {
+        return CAPTURES.sum();
+    }
+
+    public static long getReleases() {
+        return RELEASES.sum();
+    }
+
+    public static long getFailedReleases() {
+        return FAILED_RELEASES.sum();
+    }
+
+    public static long getRejections(RejectReason reason) {
+        return REJECTIONS.get(reason).sum();
+    }
+
+    public static long getPayloadBytes() {
+        return PAYLOAD_BYTES.sum();
+    }
+
+    /**
+     * This method is responsible for setting every
+     * count and timer back to zero.
+     */
+    public static void reset() {
+        CAPTURES.reset();
+        RELEASES.reset();
+        FAILED_RELEASES.reset();
+        PAYLOAD_BYTES.reset();
+
+        REJECTIONS.values().forEach(LongAdder::reset);
+
+        SAVE_TIMER.reset();
+        LOAD_TIMER.reset();
+    }
+
+}
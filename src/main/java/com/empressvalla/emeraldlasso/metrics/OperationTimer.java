@@ -0,0 +1,56 @@
+package com.empressvalla.emeraldlasso.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is responsible for keeping track of
+ * how many times an operation ran and how long it
+ * took in total and at most.
+ */
+public final class OperationTimer {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    OperationTimer() {
+    }
+
+    /**
+     * This method is responsible for recording a single
+     * run of the operation.
+     *
+     * @param startNanos The {@link System#nanoTime()} the operation started at.
+     */
+    public void record(long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        count.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getAverageMillis() {
+        long runs = count.sum();
+
+        return runs == 0 ? 0.0 : totalNanos.sum() / (double) runs / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.empressvalla.emeraldlasso.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recorded each time a lasso refuses
+ * to store an entity.
+ */
+@Name("emeraldlasso.Reject")
+@Label("Lasso Rejection")
+@Category("Emerald Lasso")
+@Description("A lasso refusing to store an entity")
+@StackTrace(false)
+public class RejectEvent extends jdk.jfr.Event {
+
+    @Label("Entity Type")
+    public String entityType;
+
+    @Label("Reason")
+    public String reason;
+
+}
@@ -0,0 +1,70 @@
+package com.empressvalla.emeraldlasso.metrics;
+
+import java.util.Locale;
+
+/**
+ * An enum of the reasons a lasso can refuse
+ * to store an entity.
+ */
+public enum RejectReason {
+    /**
+     * The entity is not a living entity or is already dead.
+     */
+    INVALID,
+
+    /**
+     * The entity is not on the whitelist.
+     */
+    WHITELIST,
+
+    /**
+     * The entity is a boss and bosses are excluded.
+     */
+    BOSS,
+
+    /**
+     * The entity has no custom name and only named entities can be stored.
+     */
+    NOT_NAMED,
+
+    /**
+     * The entity is not a baby and only babies can be stored.
+     */
+    NOT_BABY,
+
+    /**
+     * The entity has too much health for the entity health system.
+     */
+    HEALTH,
+
+    /**
+     * The entity is stuck inside a block.
+     */
+    OBSTRUCTED,
+
+    /**
+     * The saved entity is bigger than the configured maximum payload size.
+     */
+    PAYLOAD_SIZE,
+
+    /**
+     * The lasso is already full.
+     */
+    CAPACITY,
+
+    /**
+     * The player tried to capture too often.
+     */
+    RATE_LIMITED;
+
+    /**
+     * This method is responsible for returning the
+     * lower case name of the reason, used for
+     * translation keys.
+     *
+     * @return The name of the reason. I.E not_named
+     */
+    public String getSerializedName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,25 @@
+package com.empressvalla.emeraldlasso.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recorded each time a lasso releases an entity.
+ */
+@Name("emeraldlasso.Release")
+@Label("Lasso Release")
+@Category("Emerald Lasso")
+@Description("A stored entity being loaded and added back to the level")
+@StackTrace(false)
+public class ReleaseEvent extends jdk.jfr.Event {
+
+    @Label("Entity Type")
+    public String entityType;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+}
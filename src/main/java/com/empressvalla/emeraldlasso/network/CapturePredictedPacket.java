@@ -0,0 +1,51 @@
+package com.empressvalla.emeraldlasso.network;
+
+import com.empressvalla.emeraldlasso.item.advanced.CapturePrediction;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * A packet telling the server that a client predicted
+ * the capture of an entity it clicked on.
+ *
+ * The client predicts with its own config, which can differ from the
+ * server's, so the server answers every prediction instead of guessing
+ * which ones the client made. The packet is sent after the attack which
+ * triggered the capture, so by the time it is handled the capture has
+ * either removed the entity or been refused. An entity that is still in
+ * the level was not captured, and the client is told to show it again.
+ *
+ * @param entityId The network ID of the entity predicted to be captured.
+ *
+ * @see CapturePrediction
+ * @see CaptureRejectedPacket
+ */
+public record CapturePredictedPacket(int entityId) {
+
+    void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarInt(entityId);
+    }
+
+    static CapturePredictedPacket decode(FriendlyByteBuf buffer) {
+        return new CapturePredictedPacket(buffer.readVarInt());
+    }
+
+    void handle(Supplier<NetworkEvent.Context> context) {
+        ServerPlayer sender = context.get().getSender();
+
+        if(sender != null) {
+            Entity entity = sender.getLevel().getEntity(entityId);
+
+            if(entity != null && !entity.isRemoved()) {
+                ModNetwork.sendToPlayer(sender, new CaptureRejectedPacket(entityId));
+            }
+        }
+
+        context.get().setPacketHandled(true);
+    }
+
+}
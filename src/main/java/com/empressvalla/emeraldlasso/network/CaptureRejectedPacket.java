@@ -0,0 +1,35 @@
+package com.empressvalla.emeraldlasso.network;
+
+import com.empressvalla.emeraldlasso.item.advanced.CapturePrediction;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * A packet telling a client that the server did not
+ * store an entity it predicted the capture of, so that
+ * the prediction can be undone straight away.
+ *
+ * @param entityId The network ID of the entity which was not stored.
+ *
+ * @see CapturePrediction
+ * @see CapturePredictedPacket
+ */
+public record CaptureRejectedPacket(int entityId) {
+
+    void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarInt(entityId);
+    }
+
+    static CaptureRejectedPacket decode(FriendlyByteBuf buffer) {
+        return new CaptureRejectedPacket(buffer.readVarInt());
+    }
+
+    void handle(Supplier<NetworkEvent.Context> context) {
+        CapturePrediction.reject(entityId);
+
+        context.get().setPacketHandled(true);
+    }
+
+}
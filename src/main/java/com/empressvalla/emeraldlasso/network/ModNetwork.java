@@ -0,0 +1,81 @@
+package com.empressvalla.emeraldlasso.network;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.simple.SimpleChannel;
+
+/**
+ * This class is responsible for registering and
+ * sending the packets the mod uses.
+ */
+public final class ModNetwork {
+
+    /**
+     * Responsible for storing the protocol version, which must match on both sides.
+     * Increase this whenever a packet is added or changed.
+     */
+    private static final String PROTOCOL_VERSION = "2";
+
+    /**
+     * Responsible for storing the channel every packet is sent on.
+     */
+    private static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(new ResourceLocation(EmeraldLasso.MOD_ID, "main"),
+                                                                                  () -> PROTOCOL_VERSION,
+                                                                                  PROTOCOL_VERSION::equals,
+                                                                                  PROTOCOL_VERSION::equals);
+
+    private ModNetwork() {
+    }
+
+    /**
+     * This method is responsible for registering every packet.
+     * It must be called once during common setup.
+     */
+    public static void register() {
+        int id = 0;
+
+        CHANNEL.messageBuilder(CaptureRejectedPacket.class, id++, NetworkDirection.PLAY_TO_CLIENT)
+               .encoder(CaptureRejectedPacket::encode)
+               .decoder(CaptureRejectedPacket::decode)
+               .consumerMainThread(CaptureRejectedPacket::handle)
+               .add();
+
+        CHANNEL.messageBuilder(CapturePredictedPacket.class, id++, NetworkDirection.PLAY_TO_SERVER)
+               .encoder(CapturePredictedPacket::encode)
+               .decoder(CapturePredictedPacket::decode)
+               .consumerMainThread(CapturePredictedPacket::handle)
+               .add();
+    }
+
+    /**
+     * This method is responsible for sending a packet
+     * to a single player. Fake players have no client,
+     * so nothing is sent to them.
+     *
+     * @param player The player to send the packet to. Must be on the server.
+     *
+     * @param packet The packet to send.
+     */
+    public static void sendToPlayer(Player player, Object packet) {
+        if(player instanceof ServerPlayer serverPlayer && !(player instanceof FakePlayer)) {
+            CHANNEL.send(PacketDistributor.PLAYER.with(() -> serverPlayer), packet);
+        }
+    }
+
+    /**
+     * This method is responsible for sending a packet
+     * from the client to the server.
+     *
+     * @param packet The packet to send.
+     */
+    public static void sendToServer(Object packet) {
+        CHANNEL.sendToServer(packet);
+    }
+
+}
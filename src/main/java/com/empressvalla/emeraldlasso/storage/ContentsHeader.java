@@ -0,0 +1,279 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import net.minecraft.locale.Language;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is responsible for the small summary of
+ * a lasso's contents which is kept next to the stored
+ * entities. Tooltips, the enchantment glint and anything
+ * else that only needs to describe the contents read this
+ * header and never touch the stored entity NBT.
+ */
+public final class ContentsHeader {
+
+    /**
+     * The key identifier for the header. This is the key which will point
+     * to the list of entries describing the stored entities.
+     */
+    public static final String CONTENTS = "contents";
+
+    /**
+     * The vanilla NBT keys which change how an entity looks. These are copied into the
+     * header so that clients can render a preview without the stored entity NBT.
+     */
+    private static final List<String> LOOK_KEYS = List.of("Age", "IsBaby", "Variant", "variant", "Color", "Sheared", "VillagerData",
+                                                          "Type", "RabbitType", "CollarColor", "Saddle", "Size", "PuffState",
+                                                          "MainGene", "HiddenGene", "ChestedHorse", "Pumpkin");
+
+    /**
+     * The translation key shown for an entry without an entity type.
+     */
+    private static final String UNKNOWN_ENTITY_KEY = "emeraldlasso.tooltips.unknown_entity";
+
+    private ContentsHeader() {
+    }
+
+    /**
+     * This method is responsible for determining if
+     * a stack tag contains a header.
+     *
+     * @param stackTag The tag of the lasso item stack.
+     *
+     * @return {@code true} if the header is present {@code false} otherwise.
+     */
+    public static boolean isPresent(CompoundTag stackTag) {
+        return stackTag.contains(CONTENTS, Tag.TAG_LIST);
+    }
+
+    /**
+     * This method is responsible for reading every
+     * entry in the header.
+     *
+     * @param stackTag The tag of the lasso item stack.
+     *
+     * @return The entries in the order the entities were stored. An empty header returns a shared immutable list.
+     */
+    public static List<Entry> read(CompoundTag stackTag) {
+        ListTag contents = stackTag.getList(CONTENTS, Tag.TAG_COMPOUND);
+
+        if(contents.isEmpty()) {
+            return List.of();
+        }
+
+        List<Entry> entries = new ArrayList<>(contents.size());
+
+        for(int i = 0; i < contents.size(); i++) {
+            entries.add(Entry.load(contents.getCompound(i)));
+        }
+
+        return entries;
+    }
+
+    /**
+     * This method is responsible for describing a live
+     * entity which is about to be stored.
+     *
+     * @param entity The entity being stored.
+     *
+     * @param entityTag The saved NBT of the entity, used for how it looks.
+     *
+     * @return The entry describing the entity.
+     */
+    public static Entry describe(Entity entity, CompoundTag entityTag) {
+        String name = entity.hasCustomName() ? entity.getCustomName().getString() : "";
+
+        float health = entity instanceof LivingEntity livingEntity ? livingEntity.getHealth() : 0.0f;
+
+        return Entry.create(EntityType.getKey(entity.getType()).toString(), name, health, extractLook(entityTag));
+    }
+
+    /**
+     * This method is responsible for describing an entity
+     * from its saved NBT. This is only used for lassos which
+     * were filled before the header existed.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @return The entry describing the entity.
+     */
+    public static Entry describe(CompoundTag entityTag) {
+        String name = "";
+
+        if(entityTag.contains(NBTIdentifiers.CUSTOM_NAME, Tag.TAG_STRING)) {
+            try {
+                Component customName = Component.Serializer.fromJson(entityTag.getString(NBTIdentifiers.CUSTOM_NAME));
+
+                name = customName == null ? "" : customName.getString();
+            } catch (Exception exception) {
+                // A malformed name is ignored the same way vanilla ignores it when loading the entity.
+            }
+        }
+
+        return Entry.create(entityTag.getString(NBTIdentifiers.ENTITY_ID), name, entityTag.getFloat(NBTIdentifiers.ENTITY_HEALTH), extractLook(entityTag));
+    }
+
+    /**
+     * This method is responsible for copying the keys
+     * which change how an entity looks out of its NBT.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @return A new tag holding only the keys in LOOK_KEYS that the entity has.
+     */
+    private static CompoundTag extractLook(CompoundTag entityTag) {
+        CompoundTag look = new CompoundTag();
+
+        for(String key : LOOK_KEYS) {
+            Tag value = entityTag.get(key);
+
+            if(value != null) {
+                look.put(key, value.copy());
+            }
+        }
+
+        return look;
+    }
+
+    /**
+     * A record describing a single stored entity.
+     *
+     * @param typeId The registry name of the entity type. I.E minecraft:pig
+     *
+     * @param name The custom name of the entity or an empty string if it has none.
+     *
+     * @param health The health of the entity when it was stored.
+     *
+     * @param look The NBT keys which change how the entity looks. This must not be modified.
+     *
+     * @param cost The weighted size in bytes the entity takes out of the lasso's byte budget, 0 if it is not known.
+     */
+    public record Entry(String typeId, String name, float health, CompoundTag look, int cost) {
+
+        /**
+         * Creates an entry with nothing known about how the entity looks.
+         */
+        public Entry(String typeId, String name, float health) {
+            this(typeId, name, health, new CompoundTag(), 0);
+        }
+
+        private static Entry create(String typeId, String name, float health, CompoundTag look) {
+            return new Entry(typeId, name, health, look, 0);
+        }
+
+        /**
+         * This method is responsible for returning a copy
+         * of the entry with the given budget cost.
+         *
+         * @param newCost The weighted size in bytes of the stored entity.
+         *
+         * @return The entry with the cost set.
+         */
+        public Entry withCost(int newCost) {
+            return new Entry(typeId, name, health, look, newCost);
+        }
+
+        /**
+         * This method is responsible for returning the
+         * translated name of the entity type. The translation
+         * key is derived from the type ID the same way vanilla
+         * does it, which also names types that are no longer
+         * registered. The registry is only asked for types
+         * whose derived key has no translation, since tooltips
+         * call this for every entry every frame.
+         *
+         * @return The description of the entity type.
+         */
+        public Component getTypeDescription() {
+            if(typeId.isEmpty()) {
+                return Component.translatable(UNKNOWN_ENTITY_KEY);
+            }
+
+            String translationKey = "entity." + typeId.replace(':', '.');
+
+            if(Language.getInstance().has(translationKey)) {
+                return Component.translatable(translationKey);
+            }
+
+            return EntityType.byString(typeId)
+                             .map(EntityType::getDescription)
+                             .orElseGet(() -> Component.translatable(translationKey));
+        }
+
+        /**
+         * This method is responsible for writing the
+         * entry as it is kept in the header.
+         *
+         * @return A new tag holding the entry.
+         */
+        public CompoundTag save() {
+            CompoundTag entryTag = new CompoundTag();
+
+            entryTag.putString(NBTIdentifiers.ENTITY_ID, typeId);
+
+            if(!name.isEmpty()) {
+                entryTag.putString(NBTIdentifiers.NAME, name);
+            }
+
+            entryTag.putFloat(NBTIdentifiers.HEALTH, health);
+
+            if(!look.isEmpty()) {
+                entryTag.put(NBTIdentifiers.LOOK, look);
+            }
+
+            if(cost > 0) {
+                entryTag.putInt(NBTIdentifiers.COST, cost);
+            }
+
+            return entryTag;
+        }
+
+        /**
+         * This method is responsible for reading an
+         * entry written by {@link #save()}.
+         *
+         * @param entryTag The tag holding the entry.
+         *
+         * @return The entry.
+         */
+        public static Entry load(CompoundTag entryTag) {
+            return new Entry(entryTag.getString(NBTIdentifiers.ENTITY_ID), entryTag.getString(NBTIdentifiers.NAME), entryTag.getFloat(NBTIdentifiers.HEALTH),
+                             entryTag.getCompound(NBTIdentifiers.LOOK), entryTag.getInt(NBTIdentifiers.COST));
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        public static final String ENTITY_ID = "id";
+
+        public static final String NAME = "name";
+
+        public static final String HEALTH = "health";
+
+        public static final String LOOK = "look";
+
+        public static final String COST = "cost";
+
+        /**
+         * The key identifier vanilla uses for the custom name of an entity.
+         */
+        public static final String CUSTOM_NAME = "CustomName";
+
+        /**
+         * The key identifier vanilla uses for the health of an entity.
+         */
+        public static final String ENTITY_HEALTH = "Health";
+    }
+
+}
@@ -0,0 +1,271 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.mojang.logging.LogUtils;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class is responsible for storing the full
+ * payloads of captured entities on the server, so
+ * that a lasso only needs to carry a small handle
+ * pointing at them.
+ *
+ * There is one vault per server, saved alongside the overworld data.
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public class EntityVault extends SavedData {
+
+    /**
+     * The name of the file the vault is saved to in the data folder.
+     */
+    private static final String DATA_NAME = EmeraldLasso.MOD_ID + "_vault";
+
+    /**
+     * The number of game ticks in a Minecraft day.
+     */
+    private static final long TICKS_PER_DAY = 24000L;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /**
+     * Responsible for storing every payload in the vault keyed by its handle.
+     */
+    private final Map<UUID, VaultEntry> entries = new HashMap<>();
+
+    /**
+     * This method is responsible for returning the vault
+     * for the given server, creating it if it does not
+     * exist yet.
+     *
+     * @param server The server to get the vault for.
+     *
+     * @return The vault for the server.
+     */
+    public static EntityVault get(MinecraftServer server) {
+        return server.overworld()
+                     .getDataStorage()
+                     .computeIfAbsent(EntityVault::load, EntityVault::new, DATA_NAME);
+    }
+
+    /**
+     * This method is responsible for adding a payload
+     * to the vault under a freshly generated handle.
+     *
+     * @param payload The payload to store. This is owned by the vault afterwards.
+     *
+     * @param gameTime The current game time, used for orphan cleanup.
+     *
+     * @return The handle which points at the payload.
+     */
+    public UUID store(CompoundTag payload, long gameTime) {
+        UUID handle = UUID.randomUUID();
+
+        entries.put(handle, new VaultEntry(payload, gameTime));
+
+        setDirty();
+
+        return handle;
+    }
+
+    /**
+     * This method is responsible for removing a payload
+     * from the vault and returning it.
+     *
+     * @param handle The handle of the payload.
+     *
+     * @return The payload or {@code null} if the vault does not contain it.
+     */
+    @Nullable
+    public CompoundTag take(UUID handle) {
+        VaultEntry entry = entries.remove(handle);
+
+        if(entry == null) {
+            return null;
+        }
+
+        setDirty();
+
+        return entry.payload;
+    }
+
+    /**
+     * This method is responsible for returning a payload
+     * without removing it from the vault.
+     *
+     * @param handle The handle of the payload.
+     *
+     * @return The payload or {@code null} if the vault does not contain it.
+     */
+    @Nullable
+    public CompoundTag peek(UUID handle) {
+        VaultEntry entry = entries.get(handle);
+
+        return entry == null ? null : entry.payload;
+    }
+
+    /**
+     * This method is responsible for removing a payload
+     * which will never be released, such as when the lasso
+     * holding it is destroyed.
+     *
+     * @param handle The handle of the payload.
+     */
+    public void discard(UUID handle) {
+        if(entries.remove(handle) != null) {
+            setDirty();
+        }
+    }
+
+    /**
+     * This method is responsible for marking a payload
+     * as still being referenced by a lasso, so that
+     * it will not be treated as an orphan.
+     *
+     * @param handle The handle of the payload.
+     *
+     * @param gameTime The current game time.
+     */
+    public void touch(UUID handle, long gameTime) {
+        VaultEntry entry = entries.get(handle);
+
+        if(entry != null && entry.lastSeen != gameTime) {
+            entry.lastSeen = gameTime;
+
+            setDirty();
+        }
+    }
+
+    /**
+     * This method is responsible for removing every
+     * payload which has not been seen for longer
+     * than the given age.
+     *
+     * @param gameTime The current game time.
+     *
+     * @param maxAge The maximum age in ticks a payload can reach without being seen.
+     *
+     * @return The number of payloads which were removed.
+     */
+    public int sweep(long gameTime, long maxAge) {
+        int removed = 0;
+
+        Iterator<VaultEntry> iterator = entries.values().iterator();
+
+        while(iterator.hasNext()) {
+            if(gameTime - iterator.next().lastSeen > maxAge) {
+                iterator.remove();
+
+                removed++;
+            }
+        }
+
+        if(removed > 0) {
+            setDirty();
+        }
+
+        return removed;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag compoundTag) {
+        ListTag entryList = new ListTag();
+
+        for(Map.Entry<UUID, VaultEntry> entry : entries.entrySet()) {
+            CompoundTag entryTag = new CompoundTag();
+
+            entryTag.putUUID(NBTIdentifiers.HANDLE, entry.getKey());
+            entryTag.putLong(NBTIdentifiers.LAST_SEEN, entry.getValue().lastSeen);
+            entryTag.put(NBTIdentifiers.PAYLOAD, entry.getValue().payload);
+
+            entryList.add(entryTag);
+        }
+
+        compoundTag.put(NBTIdentifiers.ENTRIES, entryList);
+
+        return compoundTag;
+    }
+
+    private static EntityVault load(CompoundTag compoundTag) {
+        EntityVault vault = new EntityVault();
+
+        ListTag entryList = compoundTag.getList(NBTIdentifiers.ENTRIES, Tag.TAG_COMPOUND);
+
+        for(int i = 0; i < entryList.size(); i++) {
+            CompoundTag entryTag = entryList.getCompound(i);
+
+            if(!entryTag.hasUUID(NBTIdentifiers.HANDLE)) {
+                continue;
+            }
+
+            vault.entries.put(entryTag.getUUID(NBTIdentifiers.HANDLE),
+                              new VaultEntry(entryTag.getCompound(NBTIdentifiers.PAYLOAD), entryTag.getLong(NBTIdentifiers.LAST_SEEN)));
+        }
+
+        return vault;
+    }
+
+    /**
+     * Payloads whose lasso has been lost without being destroyed
+     * (I.E. a deleted player file) are cleaned up once they have gone
+     * unseen for longer than the configured expiry.
+     */
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        int expiryDays = ConfigManager.getVaultOrphanExpiryDays();
+
+        if(expiryDays <= 0) {
+            return;
+        }
+
+        MinecraftServer server = event.getServer();
+
+        int removed = get(server).sweep(server.overworld().getGameTime(), expiryDays * TICKS_PER_DAY);
+
+        if(removed > 0) {
+            LOGGER.info("Removed {} orphaned entities from the lasso vault", removed);
+        }
+    }
+
+    /**
+     * An inner class for holding a single payload in the vault.
+     */
+    private static class VaultEntry {
+        private final CompoundTag payload;
+
+        private long lastSeen;
+
+        private VaultEntry(CompoundTag payload, long lastSeen) {
+            this.payload = payload;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        public static final String ENTRIES = "entries";
+
+        public static final String HANDLE = "handle";
+
+        public static final String LAST_SEEN = "last_seen";
+
+        public static final String PAYLOAD = "payload";
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is responsible for reading and writing herd
+ * files, which hold captured entities so they can be moved
+ * between worlds and servers.
+ *
+ * A herd file is gzipped. It starts with a magic number, the format
+ * version and the data version of the game that wrote it, followed by
+ * one chunk per entity. Each chunk is the length of the entity's NBT
+ * followed by the NBT itself, and a length of 0 marks the end of the file.
+ * Entities are written and read one chunk at a time, so neither side
+ * ever holds more than a single entity in memory, and a file without the
+ * end marker is known to be incomplete.
+ */
+public final class HerdFile {
+
+    /**
+     * The file extension herd files are saved with.
+     */
+    public static final String EXTENSION = ".herd";
+
+    /**
+     * Marks the start of a herd file, the bytes spell ELHF.
+     */
+    private static final int MAGIC = 0x454C4846;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The largest entity a herd file can hold, so a damaged length can not make the reader allocate without limit.
+     */
+    private static final int MAX_CHUNK_BYTES = 16 * 1024 * 1024;
+
+    private HerdFile() {
+    }
+
+    /**
+     * This method is responsible for starting a new herd
+     * file. It is written under a temporary name and only
+     * takes its real name once it is finished.
+     *
+     * @param path The path of the herd file.
+     *
+     * @return The writer, which must be closed once every entity is written.
+     *
+     * @throws IOException If the file could not be created.
+     */
+    public static Writer write(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+
+        return new Writer(path);
+    }
+
+    /**
+     * This method is responsible for opening a herd
+     * file and checking it can be read by this game.
+     *
+     * @param path The path of the herd file.
+     *
+     * @return The reader, which must be closed once it is done with.
+     *
+     * @throws IOException If the file could not be opened, is not a herd file or was written by a newer game.
+     */
+    public static Reader read(Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    /**
+     * An inner class for writing a herd file one entity at a time.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path path;
+
+        private final Path temporaryPath;
+
+        private final DataOutputStream output;
+
+        private int written;
+
+        private boolean finished;
+
+        private Writer(Path path) throws IOException {
+            this.path = path;
+            this.temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+            this.output = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath))));
+
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(PayloadUpgrader.currentDataVersion());
+        }
+
+        /**
+         * This method is responsible for writing the
+         * next entity to the file.
+         *
+         * @param entityTag The saved NBT of the entity.
+         *
+         * @throws IOException If the entity could not be written.
+         */
+        public void write(CompoundTag entityTag) throws IOException {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+
+            NbtIo.write(entityTag, new DataOutputStream(chunk));
+
+            output.writeInt(chunk.size());
+
+            chunk.writeTo(output);
+
+            written++;
+        }
+
+        /**
+         * This method is responsible for returning how
+         * many entities have been written.
+         *
+         * @return The number of entities written.
+         */
+        public int getWritten() {
+            return written;
+        }
+
+        /**
+         * This method is responsible for ending the file
+         * and giving it its real name. A writer that is closed
+         * without being finished throws its file away.
+         *
+         * @throws IOException If the file could not be finished.
+         */
+        public void finish() throws IOException {
+            output.writeInt(0);
+
+            output.close();
+
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(finished) {
+                return;
+            }
+
+            output.close();
+
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * An inner class for reading a herd file one entity at a time.
+     */
+    public static final class Reader implements Closeable {
+
+        private final DataInputStream input;
+
+        private final int dataVersion;
+
+        private int read;
+
+        private Reader(Path path) throws IOException {
+            this.input = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path))));
+
+            try {
+                if(input.readInt() != MAGIC) {
+                    throw new IOException(path.getFileName() + " is not a herd file");
+                }
+
+                int formatVersion = input.readInt();
+
+                if(formatVersion > FORMAT_VERSION) {
+                    throw new IOException(path.getFileName() + " uses herd format " + formatVersion + " which is newer than this version of the mod");
+                }
+
+                this.dataVersion = input.readInt();
+
+                if(dataVersion > PayloadUpgrader.currentDataVersion()) {
+                    throw new IOException(path.getFileName() + " was written by a newer version of Minecraft (data version " + dataVersion + ")");
+                }
+            } catch(IOException exception) {
+                input.close();
+
+                throw exception;
+            }
+        }
+
+        /**
+         * This method is responsible for reading the next
+         * entity from the file. Entities saved without a
+         * data version are given the version of the file,
+         * so they are upgraded correctly when released.
+         *
+         * @return The saved NBT of the entity or {@code null} if every entity has been read.
+         *
+         * @throws IOException If the file is damaged or ends before its end marker.
+         */
+        @Nullable
+        public CompoundTag next() throws IOException {
+            int length = input.readInt();
+
+            if(length == 0) {
+                return null;
+            }
+
+            if(length < 0 || length > MAX_CHUNK_BYTES) {
+                throw new IOException("The herd file has a damaged entity of " + length + " bytes after " + read + " entities");
+            }
+
+            byte[] chunk = new byte[length];
+
+            input.readFully(chunk);
+
+            CompoundTag entityTag = NbtIo.read(new DataInputStream(new ByteArrayInputStream(chunk)), NbtAccounter.UNLIMITED);
+
+            PayloadUpgrader.stampIfMissing(entityTag, dataVersion);
+
+            read++;
+
+            return entityTag;
+        }
+
+        /**
+         * This method is responsible for returning how
+         * many entities have been read.
+         *
+         * @return The number of entities read.
+         */
+        public int getRead() {
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+}
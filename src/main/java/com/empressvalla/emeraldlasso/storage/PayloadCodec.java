@@ -0,0 +1,129 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This class is responsible for packing the NBT of a
+ * captured entity into a single compressed byte array
+ * and unpacking it again when the entity is released.
+ *
+ * The entity is written with the NBT binary format and then deflated.
+ */
+public final class PayloadCodec {
+
+    private PayloadCodec() {
+    }
+
+    /**
+     * This method is responsible for determining if
+     * a payload has been packed.
+     *
+     * @param payload The payload to check.
+     *
+     * @return {@code true} if the payload is packed {@code false} otherwise.
+     */
+    public static boolean isPacked(CompoundTag payload) {
+        return payload.contains(NBTIdentifiers.PACKED, Tag.TAG_BYTE_ARRAY);
+    }
+
+    /**
+     * This method is responsible for packing the NBT of
+     * an entity. The entity type is kept unpacked so that
+     * the entity can still be described without unpacking it.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @param compressionLevel The deflate compression level, between 1 (fastest) and 9 (smallest).
+     *
+     * @return The packed payload.
+     *
+     * @throws IOException If the entity could not be written.
+     */
+    public static CompoundTag pack(CompoundTag entityTag, int compressionLevel) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+
+        Deflater deflater = new Deflater(compressionLevel);
+
+        try(DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(byteStream, deflater))) {
+            NbtIo.write(entityTag, output);
+        } finally {
+            deflater.end();
+        }
+
+        CompoundTag payload = new CompoundTag();
+
+        payload.putString(NBTIdentifiers.ENTITY_ID, entityTag.getString(NBTIdentifiers.ENTITY_ID));
+        payload.putByteArray(NBTIdentifiers.PACKED, byteStream.toByteArray());
+
+        return payload;
+    }
+
+    /**
+     * This method is responsible for unpacking a payload
+     * back into the NBT of the entity.
+     *
+     * @param payload The packed payload.
+     *
+     * @return The saved NBT of the entity.
+     *
+     * @throws IOException If the payload is corrupt.
+     */
+    public static CompoundTag unpack(CompoundTag payload) throws IOException {
+        byte[] packed = payload.getByteArray(NBTIdentifiers.PACKED);
+
+        try(DataInputStream input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(packed)))) {
+            return NbtIo.read(input, NbtAccounter.UNLIMITED);
+        }
+    }
+
+    /**
+     * This method is responsible for working out how
+     * many bytes a payload takes up when it is saved
+     * or sent over the network, without keeping them.
+     *
+     * @param payload The payload to measure.
+     *
+     * @return The size of the payload in the NBT binary format.
+     */
+    public static int serializedSize(CompoundTag payload) {
+        DataOutputStream output = new DataOutputStream(OutputStream.nullOutputStream());
+
+        try {
+            NbtIo.write(payload, output);
+        } catch (IOException exception) {
+            // Never thrown, the bytes are not written anywhere.
+            return 0;
+        }
+
+        return output.size();
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier vanilla uses for the entity type.
+         */
+        public static final String ENTITY_ID = "id";
+
+        /**
+         * The key identifier for the compressed entity NBT.
+         */
+        public static final String PACKED = "packed";
+    }
+
+}
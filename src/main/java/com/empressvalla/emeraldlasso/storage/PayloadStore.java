@@ -0,0 +1,271 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import com.empressvalla.emeraldlasso.config.ConfigManager;
+import com.mojang.logging.LogUtils;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.server.level.ServerLevel;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * This class is responsible for turning the NBT of a
+ * captured entity into the entry that is kept in a lasso,
+ * and back again when the entity is released.
+ *
+ * The entity NBT is first turned into a payload, which is either the
+ * NBT itself or a compressed copy of it. An entry is then either the
+ * payload itself (inline) or a small handle pointing at the payload
+ * in the EntityVault.
+ *
+ * @see EntityVault
+ * @see PayloadCodec
+ */
+public final class PayloadStore {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private PayloadStore() {
+    }
+
+    /**
+     * This method is responsible for creating the entry
+     * for a freshly captured entity.
+     *
+     * @param level The level the entity was captured in.
+     *
+     * @param entityTag The saved NBT of the captured entity, or a payload it was already encoded into.
+     *
+     * @return The entry which should be added to the lasso.
+     */
+    public static CompoundTag store(ServerLevel level, CompoundTag entityTag) {
+        CompoundTag payload = encode(entityTag);
+
+        if(!ConfigManager.entityVaultEnabled()) {
+            return payload;
+        }
+
+        UUID handle = EntityVault.get(level.getServer()).store(payload, level.getServer().overworld().getGameTime());
+
+        CompoundTag entry = new CompoundTag();
+
+        // The type is kept on the handle so that the client can still describe the entity.
+        entry.putString(NBTIdentifiers.ENTITY_ID, entityTag.getString(NBTIdentifiers.ENTITY_ID));
+        entry.putUUID(NBTIdentifiers.VAULT_HANDLE, handle);
+
+        return entry;
+    }
+
+    /**
+     * This method is responsible for returning the entity
+     * NBT an entry stands for. If the entry is a handle, the
+     * payload is removed from the vault.
+     *
+     * @param level The level the entity is being released in.
+     *
+     * @param entry The entry taken from the lasso.
+     *
+     * @return The entity NBT or {@code null} if the payload no longer exists.
+     */
+    @Nullable
+    public static CompoundTag retrieve(ServerLevel level, CompoundTag entry) {
+        if(!isHandle(entry)) {
+            return decode(entry);
+        }
+
+        CompoundTag payload = EntityVault.get(level.getServer()).take(entry.getUUID(NBTIdentifiers.VAULT_HANDLE));
+
+        return payload == null ? null : decode(payload);
+    }
+
+    /**
+     * This method is responsible for returning the entity
+     * NBT an entry stands for without removing it from
+     * the vault.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param entry The entry stored in the lasso.
+     *
+     * @return The entity NBT or {@code null} if the payload no longer exists.
+     */
+    @Nullable
+    public static CompoundTag peek(ServerLevel level, CompoundTag entry) {
+        if(!isHandle(entry)) {
+            return decode(entry);
+        }
+
+        CompoundTag payload = EntityVault.get(level.getServer()).peek(entry.getUUID(NBTIdentifiers.VAULT_HANDLE));
+
+        return payload == null ? null : decode(payload);
+    }
+
+    /**
+     * This method is responsible for determining if an
+     * entry is a handle whose payload is no longer in the
+     * vault, for example because a copy of the same lasso
+     * already released it.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param entry The entry stored in the lasso.
+     *
+     * @return {@code true} if the entry can never be released {@code false} otherwise.
+     */
+    public static boolean isMissing(ServerLevel level, CompoundTag entry) {
+        return isHandle(entry) && EntityVault.get(level.getServer()).peek(entry.getUUID(NBTIdentifiers.VAULT_HANDLE)) == null;
+    }
+
+    /**
+     * This method is responsible for throwing away the
+     * payload of an entry which will never be released.
+     *
+     * @param level The level the lasso was in.
+     *
+     * @param entry The entry taken from the lasso.
+     */
+    public static void discard(ServerLevel level, CompoundTag entry) {
+        if(isHandle(entry)) {
+            EntityVault.get(level.getServer()).discard(entry.getUUID(NBTIdentifiers.VAULT_HANDLE));
+        }
+    }
+
+    /**
+     * This method is responsible for marking the payloads
+     * of a lasso as still in use.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param entityList The entries stored in the lasso.
+     */
+    public static void touch(ServerLevel level, ListTag entityList) {
+        EntityVault vault = null;
+
+        long gameTime = level.getServer().overworld().getGameTime();
+
+        for(int i = 0; i < entityList.size(); i++) {
+            CompoundTag entry = entityList.getCompound(i);
+
+            if(!isHandle(entry)) {
+                continue;
+            }
+
+            if(vault == null) {
+                vault = EntityVault.get(level.getServer());
+            }
+
+            vault.touch(entry.getUUID(NBTIdentifiers.VAULT_HANDLE), gameTime);
+        }
+    }
+
+    /**
+     * This method is responsible for moving every inline
+     * entry of a lasso into the vault. This is used to
+     * migrate lassos which were filled before the vault
+     * was enabled.
+     *
+     * @param level The level the lasso is in.
+     *
+     * @param entityList The entries stored in the lasso. Updated in place.
+     *
+     * @return {@code true} if any entry was migrated {@code false} otherwise.
+     */
+    public static boolean migrate(ServerLevel level, ListTag entityList) {
+        if(!ConfigManager.entityVaultEnabled()) {
+            return false;
+        }
+
+        boolean migrated = false;
+
+        for(int i = 0; i < entityList.size(); i++) {
+            CompoundTag entry = entityList.getCompound(i);
+
+            if(!isHandle(entry)) {
+                entityList.set(i, store(level, entry));
+
+                migrated = true;
+            }
+        }
+
+        return migrated;
+    }
+
+    /**
+     * This method is responsible for turning the NBT
+     * of an entity into a payload, compressing it if
+     * that has been enabled. A payload which has already
+     * been encoded is returned as it is, so the result can
+     * be passed straight to {@link #store(ServerLevel, CompoundTag)}.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @return The payload.
+     */
+    public static CompoundTag encode(CompoundTag entityTag) {
+        if(!ConfigManager.compressEntitiesEnabled() || PayloadCodec.isPacked(entityTag)) {
+            return entityTag;
+        }
+
+        try {
+            return PayloadCodec.pack(entityTag, ConfigManager.getCompressionLevel());
+        } catch (IOException exception) {
+            LOGGER.error("The entity {} could not be compressed, storing it uncompressed instead", entityTag.getString(NBTIdentifiers.ENTITY_ID), exception);
+
+            return entityTag;
+        }
+    }
+
+    /**
+     * This method is responsible for turning a payload
+     * back into the NBT of the entity.
+     *
+     * @param payload The payload.
+     *
+     * @return The saved NBT of the entity or {@code null} if the payload is corrupt.
+     */
+    @Nullable
+    private static CompoundTag decode(CompoundTag payload) {
+        if(!PayloadCodec.isPacked(payload)) {
+            return payload;
+        }
+
+        try {
+            return PayloadCodec.unpack(payload);
+        } catch (IOException exception) {
+            LOGGER.error("The stored entity {} could not be decompressed", payload.getString(NBTIdentifiers.ENTITY_ID), exception);
+
+            return null;
+        }
+    }
+
+    /**
+     * This method is responsible for determining if
+     * an entry is a handle to the vault.
+     *
+     * @param entry The entry to check.
+     *
+     * @return {@code true} if the entry is a handle {@code false} otherwise.
+     */
+    public static boolean isHandle(CompoundTag entry) {
+        return entry.hasUUID(NBTIdentifiers.VAULT_HANDLE);
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier vanilla uses for the entity type.
+         */
+        public static final String ENTITY_ID = "id";
+
+        /**
+         * The key identifier for the handle pointing at a payload in the vault.
+         */
+        public static final String VAULT_HANDLE = "vault_handle";
+    }
+
+}
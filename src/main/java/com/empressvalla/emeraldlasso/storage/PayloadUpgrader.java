@@ -0,0 +1,155 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import com.mojang.datafixers.DataFixUtils;
+import com.mojang.datafixers.DataFixer;
+import com.mojang.logging.LogUtils;
+import com.mojang.serialization.Dynamic;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.datafix.fixes.References;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is responsible for recording which data
+ * version a captured entity was saved with, and upgrading
+ * it with the vanilla DataFixer when it is released after
+ * a Minecraft update.
+ *
+ * Nothing is upgraded when the world loads. A stored entity is only
+ * upgraded at the moment it is released, and whether a version needs
+ * upgrading at all is worked out once per version and remembered, so
+ * releasing many entities saved with the same version does the schema
+ * lookups only once.
+ */
+public final class PayloadUpgrader {
+
+    /**
+     * The data version of Minecraft 1.19.4, which every entity stored
+     * before data versions were recorded was saved with.
+     */
+    private static final int LEGACY_DATA_VERSION = 3337;
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    /**
+     * Responsible for storing, for each data version seen, whether entities saved
+     * with it need to go through the DataFixer to reach the current version.
+     */
+    private static final Map<Integer, Boolean> NEEDS_UPGRADE = new ConcurrentHashMap<>();
+
+    private PayloadUpgrader() {
+    }
+
+    /**
+     * This method is responsible for recording the
+     * current data version on a freshly saved entity.
+     *
+     * @param entityTag The saved NBT of the entity. Modified in place.
+     */
+    public static void stamp(CompoundTag entityTag) {
+        entityTag.putInt(NBTIdentifiers.DATA_VERSION, currentDataVersion());
+    }
+
+    /**
+     * This method is responsible for recording a data
+     * version on an entity which was saved without one,
+     * when the version it was saved with is known from
+     * somewhere else.
+     *
+     * @param entityTag The saved NBT of the entity. Modified in place.
+     *
+     * @param dataVersion The data version the entity was saved with.
+     */
+    public static void stampIfMissing(CompoundTag entityTag, int dataVersion) {
+        if(!entityTag.contains(NBTIdentifiers.DATA_VERSION, Tag.TAG_ANY_NUMERIC)) {
+            entityTag.putInt(NBTIdentifiers.DATA_VERSION, dataVersion);
+        }
+    }
+
+    /**
+     * This method is responsible for returning the data
+     * version an entity was saved with.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @return The recorded data version, or the 1.19.4 data version if none was recorded.
+     */
+    public static int getDataVersion(CompoundTag entityTag) {
+        return entityTag.contains(NBTIdentifiers.DATA_VERSION, Tag.TAG_ANY_NUMERIC) ? entityTag.getInt(NBTIdentifiers.DATA_VERSION) : LEGACY_DATA_VERSION;
+    }
+
+    /**
+     * This method is responsible for upgrading a stored
+     * entity to the current data version, if it was saved
+     * with an older one.
+     *
+     * @param fixer The DataFixer of the server.
+     *
+     * @param entityTag The saved NBT of the entity.
+     *
+     * @return The upgraded NBT, or the given NBT if it did not need upgrading or the upgrade failed.
+     */
+    public static CompoundTag upgrade(DataFixer fixer, CompoundTag entityTag) {
+        int dataVersion = getDataVersion(entityTag);
+
+        int currentVersion = currentDataVersion();
+
+        if(dataVersion >= currentVersion || !NEEDS_UPGRADE.computeIfAbsent(dataVersion, version -> needsUpgrade(fixer, version, currentVersion))) {
+            return entityTag;
+        }
+
+        try {
+            Tag upgraded = fixer.update(References.ENTITY_TREE, new Dynamic<>(NbtOps.INSTANCE, entityTag), dataVersion, currentVersion).getValue();
+
+            if(upgraded instanceof CompoundTag upgradedTag) {
+                stamp(upgradedTag);
+
+                return upgradedTag;
+            }
+        } catch (Exception exception) {
+            LOGGER.error("The stored entity {} could not be upgraded from data version {}, releasing it as it is", entityTag.getString(NBTIdentifiers.ENTITY_ID), dataVersion, exception);
+        }
+
+        return entityTag;
+    }
+
+    /**
+     * Every fix is registered against a schema, so when the newest schema
+     * at or below both versions is the same one there are no fixes between
+     * them and the DataFixer would leave the entity untouched.
+     */
+    private static boolean needsUpgrade(DataFixer fixer, int dataVersion, int currentVersion) {
+        return fixer.getSchema(DataFixUtils.makeKey(dataVersion)) != fixer.getSchema(DataFixUtils.makeKey(currentVersion));
+    }
+
+    /**
+     * This method is responsible for returning the
+     * data version of the running game.
+     *
+     * @return The current data version.
+     */
+    public static int currentDataVersion() {
+        return SharedConstants.getCurrentVersion().getDataVersion().getVersion();
+    }
+
+    /**
+     * An inner class for containing NBT key identifiers
+     */
+    private static class NBTIdentifiers {
+        /**
+         * The key identifier vanilla uses for the data version NBT was saved with.
+         */
+        public static final String DATA_VERSION = "DataVersion";
+
+        /**
+         * The key identifier vanilla uses for the entity type.
+         */
+        public static final String ENTITY_ID = "id";
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.empressvalla.emeraldlasso.storage;
+
+import com.empressvalla.emeraldlasso.EmeraldLasso;
+import net.minecraft.nbt.ListTag;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is responsible for remembering the stored
+ * entities which were left out of the tag sent to clients,
+ * for lassos held by players in creative mode.
+ *
+ * A client in creative mode sends its copy of a stack back to the
+ * server, which only contains the summary. Only creative players can
+ * do that, so the entities of every lasso that has been in a creative
+ * player's inventory are kept here by contents ID until the player logs
+ * out or the lasso's contents change. Nothing is ever evicted to make
+ * room, so a stack the player has held can always be restored, even
+ * one they have been carrying on the cursor of the creative screen.
+ */
+@Mod.EventBusSubscriber(modid = EmeraldLasso.MOD_ID)
+public final class ShareTagCache {
+
+    /**
+     * Responsible for storing the stored entities keyed by their contents ID. Read from
+     * the network threads and written from the server thread.
+     */
+    private static final Map<UUID, Remembered> CACHE = new ConcurrentHashMap<>();
+
+    private ShareTagCache() {
+    }
+
+    /**
+     * This method is responsible for remembering the
+     * stored entities of a lasso in a creative player's
+     * inventory. Called every tick, so the entities are
+     * only copied the first time a contents ID is seen.
+     *
+     * @param playerId The UUID of the player holding the lasso.
+     *
+     * @param contentsId The contents ID of the lasso.
+     *
+     * @param entityList The list of entities stored in the lasso.
+     */
+    public static void remember(UUID playerId, UUID contentsId, ListTag entityList) {
+        CACHE.computeIfAbsent(contentsId, key -> new Remembered(playerId, entityList.copy()));
+    }
+
+    /**
+     * This method is responsible for forgetting the
+     * entities of contents that were changed on the
+     * server, so no stack can still be holding them.
+     *
+     * @param contentsId The contents ID the lasso had before the change.
+     */
+    public static void forget(UUID contentsId) {
+        CACHE.remove(contentsId);
+    }
+
+    /**
+     * This method is responsible for returning a copy
+     * of the stored entities of a lasso that was sent
+     * to a creative player.
+     *
+     * @param contentsId The contents ID of the lasso.
+     *
+     * @return A copy of the stored entities or {@code null} if no creative player has held the lasso.
+     */
+    @Nullable
+    public static ListTag recall(UUID contentsId) {
+        Remembered remembered = CACHE.get(contentsId);
+
+        return remembered == null ? null : remembered.entityList().copy();
+    }
+
+    /**
+     * Once a player has logged out they can no longer send any stack back.
+     */
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        UUID playerId = event.getEntity().getUUID();
+
+        CACHE.values().removeIf(remembered -> remembered.playerId().equals(playerId));
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        CACHE.clear();
+    }
+
+    /**
+     * A record holding the entities of a lasso held by a creative player.
+     *
+     * @param playerId The UUID of the player who held the lasso.
+     *
+     * @param entityList A private copy of the stored entities. This must not be modified.
+     */
+    private record Remembered(UUID playerId, ListTag entityList) {
+    }
+
+}